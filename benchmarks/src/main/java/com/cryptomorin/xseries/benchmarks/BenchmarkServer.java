@@ -0,0 +1,44 @@
+package com.cryptomorin.xseries.benchmarks;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+
+/**
+ * Boots the same dummy server as the unit tests using {@code DummyAbstractServer#startServer(Path, Path)},
+ * since most of the utilities need a running server to initialize.
+ * The server is only started once for each forked benchmark JVM.
+ * <p>
+ * The test classes are in the default package, so they can only be accessed with reflection.
+ */
+public final class BenchmarkServer {
+    private static boolean started;
+
+    private BenchmarkServer() {}
+
+    public static synchronized void start() {
+        if (started) return;
+        try {
+            Path dir = Files.createTempDirectory("xseries-benchmarks");
+            copyResource(dir, "server.properties");
+            copyResource(dir, "bukkit.yml");
+            copyResource(dir, "spigot.yml");
+
+            Class.forName("DummyAbstractServer")
+                    .getMethod("startServer", Path.class, Path.class)
+                    .invoke(null, dir, dir);
+            started = true;
+        } catch (IOException | ReflectiveOperationException ex) {
+            throw new RuntimeException("Failed to start dummy server", ex);
+        }
+    }
+
+    private static void copyResource(Path dir, String name) throws IOException {
+        try (InputStream stream = BenchmarkServer.class.getResourceAsStream('/' + name)) {
+            if (stream == null) throw new IOException("Missing benchmark resource: " + name);
+            Files.copy(stream, dir.resolve(name), StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package com.cryptomorin.xseries.benchmarks;
+
+import com.cryptomorin.xseries.XMaterial;
+import org.bukkit.Material;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Class initialization can only be measured once per JVM, so every measurement is a new fork.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 0)
+@Measurement(iterations = 1)
+@Fork(10)
+public class StartupBenchmark {
+    @Setup(Level.Trial)
+    public void setup() {
+        BenchmarkServer.start();
+    }
+
+    @Benchmark
+    public XMaterial[] initializeXMaterial() {
+        return XMaterial.VALUES;
+    }
+
+    /**
+     * Includes the class initialization as well since this is the first access.
+     */
+    @Benchmark
+    public Material parseFirstMaterial() {
+        return XMaterial.STONE.parseMaterial();
+    }
+}
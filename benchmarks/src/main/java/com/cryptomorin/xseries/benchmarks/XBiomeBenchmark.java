@@ -0,0 +1,31 @@
+package com.cryptomorin.xseries.benchmarks;
+
+import com.cryptomorin.xseries.XBiome;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class XBiomeBenchmark {
+    /**
+     * Exact name, unformatted name, legacy name and a miss.
+     */
+    @Param({"PLAINS", "dark forest", "EXTREME_HILLS", "NOT_A_BIOME"})
+    public String name;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        BenchmarkServer.start();
+    }
+
+    @Benchmark
+    public Optional<XBiome> matchName() {
+        return XBiome.matchXBiome(name);
+    }
+}
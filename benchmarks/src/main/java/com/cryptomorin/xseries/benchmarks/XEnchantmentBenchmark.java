@@ -0,0 +1,31 @@
+package com.cryptomorin.xseries.benchmarks;
+
+import com.cryptomorin.xseries.XEnchantment;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class XEnchantmentBenchmark {
+    /**
+     * Exact name, unformatted vanilla name, alias and a miss.
+     */
+    @Param({"DAMAGE_ALL", "sharpness", "SHARP", "NOT_AN_ENCHANTMENT"})
+    public String name;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        BenchmarkServer.start();
+    }
+
+    @Benchmark
+    public Optional<XEnchantment> matchName() {
+        return XEnchantment.matchXEnchantment(name);
+    }
+}
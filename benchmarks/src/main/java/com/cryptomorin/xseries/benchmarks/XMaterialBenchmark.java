@@ -0,0 +1,40 @@
+package com.cryptomorin.xseries.benchmarks;
+
+import com.cryptomorin.xseries.XMaterial;
+import org.bukkit.Material;
+import org.bukkit.inventory.ItemStack;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class XMaterialBenchmark {
+    /**
+     * Exact name, unformatted name, legacy name, legacy name with data value, modern name with data value and a miss.
+     */
+    @Param({"DIAMOND_SWORD", "diamond sword", "WOOL", "INK_SACK:1", "CONCRETE:15", "NOT_A_MATERIAL"})
+    public String name;
+    private ItemStack item;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        BenchmarkServer.start();
+        item = new ItemStack(Material.DIAMOND_SWORD);
+    }
+
+    @Benchmark
+    public Optional<XMaterial> matchName() {
+        return XMaterial.matchXMaterial(name);
+    }
+
+    @Benchmark
+    public XMaterial matchItem() {
+        return XMaterial.matchXMaterial(item);
+    }
+}
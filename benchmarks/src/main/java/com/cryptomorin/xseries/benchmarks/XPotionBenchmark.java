@@ -0,0 +1,31 @@
+package com.cryptomorin.xseries.benchmarks;
+
+import com.cryptomorin.xseries.XPotion;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class XPotionBenchmark {
+    /**
+     * Exact name, unformatted name, alias, ID and a miss.
+     */
+    @Param({"DAMAGE_RESISTANCE", "damage resistance", "INVIS", "1", "NOT_A_POTION"})
+    public String name;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        BenchmarkServer.start();
+    }
+
+    @Benchmark
+    public Optional<XPotion> matchName() {
+        return XPotion.matchXPotion(name);
+    }
+}
@@ -0,0 +1,37 @@
+package com.cryptomorin.xseries.benchmarks;
+
+import com.cryptomorin.xseries.XSound;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class XSoundBenchmark {
+    /**
+     * Exact name, unformatted name, legacy name and a miss.
+     */
+    @Param({"ENTITY_PLAYER_BURP", "entity player burp", "BURP", "NOT_A_SOUND"})
+    public String name;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        BenchmarkServer.start();
+    }
+
+    @Benchmark
+    public Optional<XSound> matchName() {
+        return XSound.matchXSound(name);
+    }
+
+    @Benchmark
+    public XSound.Record parseRecord() {
+        // The sound format's equivalent of "name:data"
+        return XSound.parse("~ENTITY_PLAYER_BURP, 2.5f, 0.5");
+    }
+}
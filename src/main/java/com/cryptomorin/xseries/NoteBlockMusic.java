@@ -29,13 +29,27 @@ import org.bukkit.entity.Player;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
-import java.io.BufferedReader;
 import java.io.IOException;
+import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.*;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.DelayQueue;
+import java.util.concurrent.Delayed;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Supplier;
 
 /**
@@ -45,7 +59,7 @@ import java.util.function.Supplier;
  * This class is independent of XSound.
  *
  * @author Crypto Morin
- * @version 3.0.0
+ * @version 3.1.0
  * @see Instrument
  * @see Note
  */
@@ -175,23 +189,13 @@ public final class NoteBlockMusic {
      * @param player   the player to play the music to.
      * @param location the location to play the notes to.
      * @param path     the path of the file to read the music notes from.
-     * @return the async task handling the file operations and music parsers.
+     * @return the task that completes when the music ends.
      * @see #playMusic(Player, Supplier, String)
+     * @see ScriptStream
      * @since 1.0.0
      */
     public static CompletableFuture<Void> fromFile(@Nonnull Player player, @Nonnull Supplier<Location> location, @Nonnull Path path) {
-        return CompletableFuture.runAsync(() -> {
-            try (BufferedReader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
-                String line;
-                while ((line = reader.readLine()) != null) {
-                    line = line.trim();
-                    if (line.isEmpty() || line.startsWith("#")) continue;
-                    parseInstructions(line).play(player, location, true);
-                }
-            } catch (IOException ex) {
-                ex.printStackTrace();
-            }
-        });
+        return ScriptStream.parse(path).play(player, location, true);
     }
 
     /**
@@ -199,7 +203,7 @@ public final class NoteBlockMusic {
      * This method allows you to write your own Minecraft music without needing to use
      * redstones and note blocks.
      * <p>
-     * We'll take a whole thread for the music for blocking requests.
+     * The script is compiled into a {@link Timeline} which is played by a single thread shared between all the musics.
      * <b>Format:</b><p>
      * Instrument, Tone, Repeat (optional), Repeating Delay (optional, required if Repeat is used) [Next Delay]<br>
      * Both delays are in milliseconds.<br>
@@ -231,26 +235,41 @@ public final class NoteBlockMusic {
      * <p>
      * <b>CompletableFuture</b><p>
      * Warning: Do not use blocking methods such as join() or get()
-     * You may use cancel() or the then... methods.
+     * You may use cancel() to stop the music or the then... methods.
      *
      * @param player   in order to play the note we need a player instance. Any player.
      * @param location the location to play this note to.
      * @param script   the music script.
-     * @return the async task processing the script.
+     * @return the task that completes when the music ends.
      * @see #fromFile(Player, Supplier, Path)
      * @since 1.0.0
      */
     public static CompletableFuture<Void> playMusic(@Nonnull Player player, @Nonnull Supplier<Location> location, @Nullable String script) {
+        if (Strings.isNullOrEmpty(script)) return CompletableFuture.completedFuture(null);
+
         // We don't want to mess around in the main thread.
-        // Sounds are thread-safe.
-        return CompletableFuture.runAsync(() -> {
-            if (Strings.isNullOrEmpty(script)) return;
-            Sequence seq = parseInstructions(script);
-            seq.play(player, location, true);
-        }).exceptionally(ex -> {
-            ex.printStackTrace();
-            return null;
+        // The same future is used for the playback, so cancelling it stops the music.
+        CompletableFuture<Void> playback = new CompletableFuture<>();
+        CompletableFuture.supplyAsync(() -> Timeline.compile(parseInstructions(script))).whenComplete((timeline, ex) -> {
+            if (ex != null) {
+                ex.printStackTrace();
+                playback.complete(null);
+            } else if (!playback.isDone()) timeline.play(player, location, true, 0, playback);
         });
+        return playback;
+    }
+
+    /**
+     * Stops the thread that plays all the music and cancels all the music that is currently playing.
+     * This should be called when your plugin is disabled, otherwise the thread and the music
+     * keep running after the plugin is reloaded.
+     * <p>
+     * Music that is played after this starts a new thread.
+     *
+     * @since 3.1.0
+     */
+    public static void shutdown() {
+        Engine.shutdown();
     }
 
     public static Sequence parseInstructions(@Nonnull CharSequence script) {
@@ -670,6 +689,14 @@ public final class NoteBlockMusic {
 
         public abstract void play(Player player, Supplier<Location> location, boolean playAtLocation);
 
+        /**
+         * Estimates the length of this instruction from the delays between its restatements.
+         * This doesn't include the fermata, and {@link Sequence}s only add the estimated length
+         * of each of their children once no matter how many times they're restated.
+         * Use {@link Timeline#getLength()} of the compiled instruction for the exact length.
+         *
+         * @return the estimated length in milliseconds.
+         */
         public long getEstimatedLength() {
             return (long) restatement * restatementFermata;
         }
@@ -738,4 +765,1021 @@ public final class NoteBlockMusic {
             return result;
         }
     }
+
+    /**
+     * A {@link Sequence} compiled into a flat list of sounds, each with its own offset from the start of the music.
+     * Timelines don't change once they're compiled, so the same timeline can be played multiple times at once.
+     * <p>
+     * Timelines are played by a single thread shared between all the musics that waits until the next sound
+     * of any of the musics needs to be played, so no thread is blocked while waiting for the next note.
+     * <p>
+     * Each sound is packed into a single long, 16 bits for each of these from the highest bits:
+     * <ol>
+     *     <li>The delay from the previous sound in milliseconds.</li>
+     *     <li>The {@link XSound} ordinal, or {@link #REST} for delays that don't fit in 16 bits.</li>
+     *     <li>The volume as a fixed-point number with 8 fraction bits.</li>
+     *     <li>The pitch as a fixed-point number with 12 fraction bits.</li>
+     * </ol>
+     *
+     * @since 3.1.0
+     */
+    public static final class Timeline {
+        private static final XSound[] SOUNDS = XSound.values();
+        private static final int REST = 0xFFFF, MAX_DELTA = 0xFFFF;
+        private static final float VOLUME_SCALE = 1 << 8, PITCH_SCALE = 1 << 12;
+        private static final Timeline EMPTY = new Timeline(new long[0], 0);
+
+        final long[] events;
+        /**
+         * The length of the music in milliseconds including the delays after the last sound.
+         */
+        final long length;
+
+        private Timeline(long[] events, long length) {
+            this.events = events;
+            this.length = length;
+        }
+
+        /**
+         * Expands all the restatements of the instruction and its children into a timeline.
+         * Sounds that are not supported in this version are kept, so the timeline can be cached
+         * and shared between versions, and they're skipped when played.
+         *
+         * @param instruction the instruction to compile.
+         * @return a new timeline.
+         * @since 3.1.0
+         */
+        @Nonnull
+        public static Timeline compile(@Nonnull Instruction instruction) {
+            Objects.requireNonNull(instruction, "Cannot compile null instruction");
+            Builder builder = new Builder();
+            long length = builder.add(instruction, 0);
+            return new Timeline(Arrays.copyOf(builder.events, builder.size), length);
+        }
+
+        /**
+         * Joins multiple timelines into one, where each timeline starts after the previous one ends.
+         *
+         * @param timelines the timelines to join.
+         * @return a new timeline.
+         * @since 3.1.0
+         */
+        @Nonnull
+        public static Timeline concat(@Nonnull Collection<Timeline> timelines) {
+            Builder builder = new Builder();
+            long start = 0;
+            for (Timeline timeline : timelines) {
+                long time = start;
+                for (long event : timeline.events) {
+                    time += delta(event);
+                    int sound = sound(event);
+                    if (sound != REST) builder.add(time, sound, volume(event), pitch(event));
+                }
+                start += timeline.length;
+            }
+            return new Timeline(Arrays.copyOf(builder.events, builder.size), start);
+        }
+
+        static long pack(long delta, int sound, float volume, float pitch) {
+            long packedVolume = Math.min(0xFFFF, Math.max(0, Math.round(volume * VOLUME_SCALE)));
+            long packedPitch = Math.min(0xFFFF, Math.max(0, Math.round(pitch * PITCH_SCALE)));
+            return (delta << 48) | ((long) sound << 32) | (packedVolume << 16) | packedPitch;
+        }
+
+        static int delta(long event) {
+            return (int) (event >>> 48);
+        }
+
+        static int sound(long event) {
+            return (int) (event >>> 32) & 0xFFFF;
+        }
+
+        static float volume(long event) {
+            return ((int) (event >>> 16) & 0xFFFF) / VOLUME_SCALE;
+        }
+
+        static float pitch(long event) {
+            return ((int) event & 0xFFFF) / PITCH_SCALE;
+        }
+
+        /**
+         * Plays this timeline asynchronously.
+         *
+         * @param player         the player to play the sounds to.
+         * @param location       the location to play each sound at.
+         * @param playAtLocation if the sounds should be played to everyone at the location instead of only the player.
+         * @return the task that completes when the music ends. Cancelling this stops the music.
+         * @since 3.1.0
+         */
+        @Nonnull
+        public CompletableFuture<Void> play(@Nonnull Player player, @Nonnull Supplier<Location> location, boolean playAtLocation) {
+            return play(player, location, playAtLocation, 0);
+        }
+
+        /**
+         * Plays this timeline asynchronously starting from the given position.
+         *
+         * @param player         the player to play the sounds to.
+         * @param location       the location to play each sound at.
+         * @param playAtLocation if the sounds should be played to everyone at the location instead of only the player.
+         * @param position       the position to start from in milliseconds.
+         * @return the task that completes when the music ends. Cancelling this stops the music.
+         * @since 3.1.0
+         */
+        @Nonnull
+        public CompletableFuture<Void> play(@Nonnull Player player, @Nonnull Supplier<Location> location, boolean playAtLocation, long position) {
+            return play(player, location, playAtLocation, position, new CompletableFuture<>());
+        }
+
+        private CompletableFuture<Void> play(Player player, Supplier<Location> location, boolean playAtLocation,
+                                             long position, CompletableFuture<Void> future) {
+            Objects.requireNonNull(player, "Cannot play music to null player");
+            Objects.requireNonNull(location, "Cannot play music at null location");
+
+            Playback playback = new Playback(this, null, player, location, playAtLocation, future);
+            if (playback.seek(position)) Engine.add(playback);
+            else future.complete(null);
+            return future;
+        }
+
+        /**
+         * @return the amount of events in this timeline, including rests for long delays.
+         * @since 3.1.0
+         */
+        public int size() {
+            return events.length;
+        }
+
+        /**
+         * @return the length of this music in milliseconds.
+         * @since 3.1.0
+         */
+        public long getLength() {
+            return length;
+        }
+
+        /**
+         * @param index the index of the event.
+         * @return the sound of the event, or null if the event is a rest.
+         * @since 3.1.0
+         */
+        @Nullable
+        public XSound getSound(int index) {
+            int sound = sound(events[index]);
+            return sound == REST ? null : SOUNDS[sound];
+        }
+
+        /**
+         * @param index the index of the event.
+         * @return the volume of the event with a precision of 1/256
+         * @since 3.1.0
+         */
+        public float getVolume(int index) {
+            return volume(events[index]);
+        }
+
+        /**
+         * @param index the index of the event.
+         * @return the pitch of the event with a precision of 1/4096
+         * @since 3.1.0
+         */
+        public float getPitch(int index) {
+            return pitch(events[index]);
+        }
+
+        /**
+         * @param index the index of the event.
+         * @return the time the event is played at from the start of the music in milliseconds.
+         * @since 3.1.0
+         */
+        public long getTime(int index) {
+            if (index < 0 || index >= events.length) throw new IndexOutOfBoundsException("Event index: " + index + ", size: " + events.length);
+            long time = 0;
+            for (int i = 0; i <= index; i++) time += delta(events[i]);
+            return time;
+        }
+
+        /**
+         * Finds the first event that is played at or after the given position.
+         *
+         * @param position the position in milliseconds.
+         * @return the index of the event, or {@link #size()} if all the events are played before the position.
+         * @since 3.1.0
+         */
+        public int indexAt(long position) {
+            long time = 0;
+            for (int i = 0; i < events.length; i++) {
+                time += delta(events[i]);
+                if (time >= position) return i;
+            }
+            return events.length;
+        }
+
+        private static final class Builder {
+            long[] events = new long[16];
+            int size;
+            long lastTime;
+
+            /**
+             * Follows the same order as {@link Instruction#play(Player, Supplier, boolean)}
+             *
+             * @return the time after the instruction and its fermata.
+             */
+            long add(Instruction instruction, long time) {
+                for (int repeat = instruction.restatement; repeat > 0; repeat--) {
+                    if (instruction instanceof Sequence) {
+                        for (Instruction child : ((Sequence) instruction).instructions) time = add(child, time);
+                    } else {
+                        Sound sound = (Sound) instruction;
+                        if (sound.sound != null)
+                            add(time, sound.sound.ordinal(), sound.volume, sound.pitch);
+                    }
+                    time += instruction.restatementFermata;
+                }
+                return time + instruction.fermata;
+            }
+
+            void add(long time, int sound, float volume, float pitch) {
+                long delta = time - lastTime;
+                while (delta > MAX_DELTA) {
+                    add(pack(MAX_DELTA, REST, 0, 0));
+                    delta -= MAX_DELTA;
+                }
+                add(pack(delta, sound, volume, pitch));
+                lastTime = time;
+            }
+
+            void add(long event) {
+                if (size == events.length) events = Arrays.copyOf(events, size << 1);
+                events[size++] = event;
+            }
+        }
+    }
+
+    /**
+     * A music script that is parsed line by line in the background. Each line is compiled into its own {@link Timeline}
+     * as soon as it's read, so the music can start playing before the whole script is parsed.
+     * <p>
+     * Files are memory-mapped and lines are decoded directly from the mapped buffer, so even large song libraries
+     * are never fully loaded as strings. Lines follow the same format as {@link #fromFile(Player, Supplier, Path)}
+     * and each line starts after the previous line ends.
+     * <p>
+     * The same stream can be played multiple times, even while it's still being parsed.
+     *
+     * @since 3.1.0
+     */
+    public static final class ScriptStream {
+        private static final int BUFFER_SIZE = 8192;
+
+        /**
+         * Only appended to. Playbacks keep the index of their current timeline.
+         */
+        final List<Timeline> timelines = Collections.synchronizedList(new ArrayList<>());
+        volatile boolean finished;
+        @Nullable
+        volatile Throwable error;
+
+        private ScriptStream() {
+        }
+
+        /**
+         * Starts parsing a music script file asynchronously.
+         *
+         * @param path the path of the script file.
+         * @return a stream of the parsed timelines.
+         * @since 3.1.0
+         */
+        @Nonnull
+        public static ScriptStream parse(@Nonnull Path path) {
+            Objects.requireNonNull(path, "Cannot parse music script from null path");
+            ScriptStream stream = new ScriptStream();
+            CompletableFuture.runAsync(() -> {
+                try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+                    long size = channel.size();
+                    if (size <= Integer.MAX_VALUE) stream.parseLines(channel.map(FileChannel.MapMode.READ_ONLY, 0, size), true);
+                    else stream.read(channel);
+                } catch (Throwable ex) {
+                    stream.error = ex;
+                } finally {
+                    stream.finished = true;
+                }
+            });
+            return stream;
+        }
+
+        /**
+         * Starts parsing a music script from a channel asynchronously.
+         * The channel is closed when it's fully read.
+         *
+         * @param channel the channel to read the script from.
+         * @return a stream of the parsed timelines.
+         * @since 3.1.0
+         */
+        @Nonnull
+        public static ScriptStream parse(@Nonnull ReadableByteChannel channel) {
+            Objects.requireNonNull(channel, "Cannot parse music script from null channel");
+            ScriptStream stream = new ScriptStream();
+            CompletableFuture.runAsync(() -> {
+                try (ReadableByteChannel ch = channel) {
+                    stream.read(ch);
+                } catch (Throwable ex) {
+                    stream.error = ex;
+                } finally {
+                    stream.finished = true;
+                }
+            });
+            return stream;
+        }
+
+        private void read(ReadableByteChannel channel) throws IOException {
+            ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+            while (channel.read(buffer) != -1) {
+                buffer.flip();
+                parseLines(buffer, false);
+                buffer.compact();
+
+                // A single line that doesn't fit in the buffer.
+                if (!buffer.hasRemaining()) {
+                    buffer.flip();
+                    buffer = ByteBuffer.allocate(buffer.capacity() << 1).put(buffer);
+                }
+            }
+            buffer.flip();
+            parseLines(buffer, true);
+        }
+
+        /**
+         * Parses all the complete lines in the buffer and moves its position to the start of the remaining line.
+         *
+         * @param last if the remaining bytes after the last line separator should also be parsed as a line.
+         */
+        private void parseLines(ByteBuffer buffer, boolean last) {
+            int start = buffer.position(), limit = buffer.limit();
+            for (int i = start; i < limit; i++) {
+                if (buffer.get(i) == '\n') {
+                    parseLine(buffer, start, i);
+                    start = i + 1;
+                }
+            }
+            if (last && start < limit) {
+                parseLine(buffer, start, limit);
+                start = limit;
+            }
+            buffer.position(start);
+        }
+
+        private void parseLine(ByteBuffer buffer, int start, int end) {
+            ByteBuffer slice = buffer.duplicate();
+            slice.limit(end).position(start);
+            CharBuffer line = StandardCharsets.UTF_8.decode(slice);
+
+            // Same as String#trim() without copying.
+            int from = 0, to = line.length();
+            while (from < to && line.charAt(from) <= ' ') from++;
+            while (to > from && line.charAt(to - 1) <= ' ') to--;
+            if (from == to || line.charAt(from) == '#') return;
+
+            timelines.add(Timeline.compile(parseInstructions(line.subSequence(from, to))));
+        }
+
+        /**
+         * Plays this script asynchronously. If the parser can't keep up with the music,
+         * the music waits for the next line to be parsed.
+         *
+         * @param player         the player to play the sounds to.
+         * @param location       the location to play each sound at.
+         * @param playAtLocation if the sounds should be played to everyone at the location instead of only the player.
+         * @return the task that completes when the music ends. Cancelling this stops the music.
+         * @since 3.1.0
+         */
+        @Nonnull
+        public CompletableFuture<Void> play(@Nonnull Player player, @Nonnull Supplier<Location> location, boolean playAtLocation) {
+            Objects.requireNonNull(player, "Cannot play music to null player");
+            Objects.requireNonNull(location, "Cannot play music at null location");
+
+            CompletableFuture<Void> future = new CompletableFuture<>();
+            Playback playback = new Playback(Timeline.EMPTY, this, player, location, playAtLocation, future);
+            try {
+                if (playback.next()) Engine.add(playback);
+                else future.complete(null);
+            } catch (Throwable ex) {
+                future.completeExceptionally(ex);
+            }
+            return future;
+        }
+
+        /**
+         * @return true if the whole script has been parsed, even if it failed.
+         * @since 3.1.0
+         */
+        public boolean isFinished() {
+            return finished;
+        }
+
+        /**
+         * @return the amount of lines parsed so far.
+         * @since 3.1.0
+         */
+        public int getParsedLines() {
+            return timelines.size();
+        }
+    }
+
+    /**
+     * An on-disk cache of compiled music scripts, so a fixed song library doesn't need to be parsed every time.
+     * Cached songs are stored in a compact binary format that is memory-mapped when loaded.
+     * <p>
+     * Each song is stored in a file named after the hash of its script, so a changed script
+     * never loads an outdated song. Loaded songs are also kept in memory until {@link #clear()} is called,
+     * and songs that are no longer used can be deleted with {@link #evict(long, TimeUnit)}
+     * <p>
+     * Cached songs don't depend on the server version, so the same directory can be shared between
+     * servers of different versions. Sounds that are not supported are skipped when played.
+     * <p>
+     * <b>Binary Format:</b> the {@link #MAGIC} number, the format version, the length of the music (long),
+     * the amount of events (int) followed by the packed {@link Timeline} events.
+     *
+     * @since 3.1.0
+     */
+    public static final class SongCache {
+        private static final int MAGIC = 0x584E424D, FORMAT_VERSION = 1, HEADER_SIZE = 4 + 4 + 8 + 4;
+        private static final String EXTENSION = ".nbm", TEMP_EXTENSION = EXTENSION + ".tmp";
+        /**
+         * XSound ordinals can change between versions, so they're a part of the hash as well.
+         */
+        private static final byte[] SOUNDS_FINGERPRINT;
+
+        static {
+            StringBuilder names = new StringBuilder(Timeline.SOUNDS.length * 30);
+            for (XSound sound : Timeline.SOUNDS) names.append(sound.name()).append(',');
+            SOUNDS_FINGERPRINT = names.toString().getBytes(StandardCharsets.UTF_8);
+        }
+
+        private final Path directory;
+        private final Map<String, Timeline> loaded = new ConcurrentHashMap<>();
+
+        /**
+         * @param directory the directory to store the cached songs in. It's created if it doesn't exist.
+         */
+        public SongCache(@Nonnull Path directory) {
+            this.directory = Objects.requireNonNull(directory, "Song cache directory cannot be null");
+        }
+
+        /**
+         * Loads a music script file from the cache, or parses and caches it if it changed.
+         * The file follows the same format as {@link #fromFile(Player, Supplier, Path)}
+         *
+         * @param script the path of the script file.
+         * @return the compiled timeline of the whole script.
+         * @throws IOException if the script or the cache couldn't be read or written.
+         * @since 3.1.0
+         */
+        @Nonnull
+        public Timeline load(@Nonnull Path script) throws IOException {
+            Objects.requireNonNull(script, "Cannot load music script from null path");
+            try (FileChannel channel = FileChannel.open(script, StandardOpenOption.READ)) {
+                ByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+                return load(buffer);
+            }
+        }
+
+        /**
+         * Loads a music script from the cache, or parses and caches it if it's not cached.
+         *
+         * @param script the music script.
+         * @return the compiled timeline of the script.
+         * @throws IOException if the cache couldn't be read or written.
+         * @see #playMusic(Player, Supplier, String)
+         * @since 3.1.0
+         */
+        @Nonnull
+        public Timeline load(@Nonnull String script) throws IOException {
+            Objects.requireNonNull(script, "Cannot load null music script");
+            return load(ByteBuffer.wrap(script.getBytes(StandardCharsets.UTF_8)));
+        }
+
+        private Timeline load(ByteBuffer script) throws IOException {
+            String hash = hash(script.duplicate());
+            Timeline timeline = loaded.get(hash);
+            if (timeline != null) return timeline;
+
+            Path file = directory.resolve(hash + EXTENSION);
+            if (Files.isRegularFile(file)) timeline = read(file);
+            if (timeline != null) {
+                try {
+                    // Keeps the song from being evicted while it's still used.
+                    Files.setLastModifiedTime(file, FileTime.fromMillis(System.currentTimeMillis()));
+                } catch (IOException ignored) {
+                }
+            } else {
+                ScriptStream stream = new ScriptStream();
+                stream.parseLines(script.duplicate(), true);
+                timeline = Timeline.concat(stream.timelines);
+                write(file, timeline);
+            }
+
+            loaded.put(hash, timeline);
+            return timeline;
+        }
+
+        private static String hash(ByteBuffer script) {
+            MessageDigest digest;
+            try {
+                digest = MessageDigest.getInstance("SHA-256");
+            } catch (NoSuchAlgorithmException e) {
+                throw new AssertionError("SHA-256 is not supported", e);
+            }
+
+            digest.update(SOUNDS_FINGERPRINT);
+            digest.update(script);
+
+            byte[] hash = digest.digest();
+            char[] hex = new char[hash.length * 2];
+            for (int i = 0; i < hash.length; i++) {
+                hex[i * 2] = Character.forDigit((hash[i] >> 4) & 0xF, 16);
+                hex[i * 2 + 1] = Character.forDigit(hash[i] & 0xF, 16);
+            }
+            return new String(hex);
+        }
+
+        /**
+         * @return the cached timeline, or null if the file is not a valid cache of this format version.
+         */
+        @Nullable
+        private static Timeline read(Path file) throws IOException {
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+                long size = channel.size();
+                if (size < HEADER_SIZE) return null;
+
+                ByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+                if (buffer.getInt() != MAGIC || buffer.getInt() != FORMAT_VERSION) return null;
+
+                long length = buffer.getLong();
+                int count = buffer.getInt();
+                if (count < 0 || buffer.remaining() != (long) count * Long.BYTES) return null;
+
+                long[] events = new long[count];
+                buffer.asLongBuffer().get(events);
+                return new Timeline(events, length);
+            }
+        }
+
+        private void write(Path file, Timeline timeline) throws IOException {
+            Files.createDirectories(directory);
+            ByteBuffer buffer = ByteBuffer.allocate(HEADER_SIZE + timeline.events.length * Long.BYTES);
+            buffer.putInt(MAGIC).putInt(FORMAT_VERSION).putLong(timeline.length).putInt(timeline.events.length);
+            buffer.asLongBuffer().put(timeline.events);
+            buffer.rewind();
+
+            // Written to a temporary file first, so other servers sharing the cache never read a partial file.
+            Path temp = Files.createTempFile(directory, "song", TEMP_EXTENSION);
+            try {
+                try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+                    while (buffer.hasRemaining()) channel.write(buffer);
+                }
+                Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } finally {
+                Files.deleteIfExists(temp);
+            }
+        }
+
+        /**
+         * Deletes the cached songs that weren't loaded by any server sharing this cache within the given time.
+         * Songs that are loaded in memory are kept. Leftover temporary files of failed writes are deleted as well.
+         *
+         * @param maxAge the time since the song was last loaded from the disk.
+         * @param unit   the unit of the max age.
+         * @return the amount of deleted files.
+         * @throws IOException if the cache directory couldn't be read.
+         * @since 3.1.0
+         */
+        public int evict(long maxAge, @Nonnull TimeUnit unit) throws IOException {
+            Objects.requireNonNull(unit, "Song cache max age unit cannot be null");
+            if (!Files.isDirectory(directory)) return 0;
+
+            long oldest = System.currentTimeMillis() - unit.toMillis(maxAge);
+            int deleted = 0;
+            try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, "*{" + EXTENSION + ',' + TEMP_EXTENSION + '}')) {
+                for (Path file : files) {
+                    String name = file.getFileName().toString();
+                    if (name.endsWith(EXTENSION) && loaded.containsKey(name.substring(0, name.length() - EXTENSION.length())))
+                        continue;
+
+                    try {
+                        if (Files.getLastModifiedTime(file).toMillis() < oldest && Files.deleteIfExists(file)) deleted++;
+                    } catch (IOException ignored) {
+                        // Deleted or being written by another server.
+                    }
+                }
+            }
+            return deleted;
+        }
+
+        /**
+         * Removes all the songs loaded in memory. The cached files are kept.
+         *
+         * @since 3.1.0
+         */
+        public void clear() {
+            loaded.clear();
+        }
+    }
+
+    /**
+     * Plays a single timeline to a changing group of listeners, like a radio station.
+     * All the listeners share the same playback, so players that join in the middle
+     * of the music start hearing it from the current position.
+     * <p>
+     * <b>Example:</b>
+     * <blockquote><pre>
+     *     Radio radio = new Radio(songCache.load(lobbyMusic), true);
+     *     radio.start();
+     *
+     *     // PlayerJoinEvent
+     *     radio.addListener(event.getPlayer());
+     * </pre></blockquote>
+     *
+     * @since 3.1.0
+     */
+    public static final class Radio {
+        private final Timeline timeline;
+        private final boolean loop;
+        private final Map<UUID, Listener> listeners = new ConcurrentHashMap<>();
+        @Nullable
+        private volatile Playback playback;
+
+        /**
+         * @param timeline the music to play.
+         * @param loop     if the music should start over when it ends.
+         *                 Looping timelines must have a {@link Timeline#getLength() length}
+         *                 so the script should end with a rest.
+         */
+        public Radio(@Nonnull Timeline timeline, boolean loop) {
+            this.timeline = Objects.requireNonNull(timeline, "Radio timeline cannot be null");
+            if (loop && timeline.length <= 0)
+                throw new IllegalArgumentException("Cannot loop a radio timeline with no length: " + timeline.length + "ms");
+            this.loop = loop;
+        }
+
+        /**
+         * Starts playing the music if it's not already playing.
+         *
+         * @return the task that completes when the music ends or the radio is stopped.
+         * @since 3.1.0
+         */
+        @Nonnull
+        public synchronized CompletableFuture<Void> start() {
+            Playback current = playback;
+            if (current != null && !current.future.isDone()) return current.future;
+
+            CompletableFuture<Void> future = new CompletableFuture<>();
+            current = new Playback(timeline, null, null, null, false, future);
+            current.radio = this;
+            playback = current;
+
+            if (current.seek(0)) Engine.add(current);
+            else future.complete(null);
+            return future;
+        }
+
+        /**
+         * Stops playing the music. The listeners are kept for the next time the radio starts.
+         *
+         * @since 3.1.0
+         */
+        public synchronized void stop() {
+            Playback current = playback;
+            if (current != null) current.future.complete(null);
+            playback = null;
+        }
+
+        /**
+         * @return the current position of the music in milliseconds, or 0 if it's not playing.
+         * @since 3.1.0
+         */
+        public long getPosition() {
+            Playback current = playback;
+            if (current == null || current.future.isDone()) return 0;
+            long elapsed = current.elapsed();
+            if (elapsed < 0) elapsed += timeline.length; // Looping, but the previous loop didn't end yet.
+            return Math.min(elapsed, timeline.length);
+        }
+
+        /**
+         * Adds a listener that hears the music at their own location.
+         *
+         * @param player the player to add.
+         * @since 3.1.0
+         */
+        public void addListener(@Nonnull Player player) {
+            addListener(player, player::getLocation);
+        }
+
+        /**
+         * Adds a listener or changes the location of an existing listener.
+         *
+         * @param player   the player to add.
+         * @param location the location to play each sound at for this player.
+         * @since 3.1.0
+         */
+        public void addListener(@Nonnull Player player, @Nonnull Supplier<Location> location) {
+            Objects.requireNonNull(player, "Cannot add null player to radio");
+            Objects.requireNonNull(location, "Cannot add radio listener with null location");
+            listeners.put(player.getUniqueId(), new Listener(player, location));
+        }
+
+        /**
+         * @param player the player to remove.
+         * @return true if the player was listening to this radio.
+         * @since 3.1.0
+         */
+        public boolean removeListener(@Nonnull Player player) {
+            return listeners.remove(player.getUniqueId()) != null;
+        }
+
+        /**
+         * @return the amount of players listening to this radio.
+         * @since 3.1.0
+         */
+        public int getListenerCount() {
+            return listeners.size();
+        }
+
+        /**
+         * Players that left the server and listeners whose location couldn't be found are removed automatically.
+         */
+        private void play(org.bukkit.Sound sound, float volume, float pitch) {
+            for (Iterator<Listener> iter = listeners.values().iterator(); iter.hasNext(); ) {
+                Listener listener = iter.next();
+                if (!listener.player.isOnline()) {
+                    iter.remove();
+                    continue;
+                }
+
+                Location location;
+                try {
+                    location = listener.location.get();
+                } catch (RuntimeException ex) {
+                    iter.remove();
+                    continue;
+                }
+                if (location == null) iter.remove();
+                else listener.player.playSound(location, sound, volume, pitch);
+            }
+        }
+
+        private static final class Listener {
+            final Player player;
+            final Supplier<Location> location;
+
+            Listener(Player player, Supplier<Location> location) {
+                this.player = player;
+                this.location = location;
+            }
+        }
+    }
+
+    /**
+     * A single timeline or script stream being played. Ordered by the time of its next sound.
+     */
+    private static final class Playback implements Delayed {
+        /**
+         * How long to wait before checking again if the next line of a stream is parsed.
+         */
+        private static final long STALL_RETRY_MILLIS = 5;
+
+        Timeline timeline;
+        @Nullable
+        final ScriptStream stream;
+        @Nullable
+        Radio radio;
+        final Player player;
+        final Supplier<Location> location;
+        final boolean playAtLocation;
+        final CompletableFuture<Void> future;
+        long start = System.nanoTime();
+        /**
+         * The index of the next event and its offset from the start of the music in milliseconds.
+         */
+        int index;
+        long time;
+        /**
+         * The index of the next timeline of the stream and the offset of the current timeline.
+         */
+        int nextTimeline;
+        long timelineStart;
+        /**
+         * If the stream didn't have the next timeline parsed yet.
+         */
+        boolean stalled;
+        /**
+         * If all the sounds were played and only the rests at the end of the music are left.
+         */
+        boolean ending;
+
+        Playback(Timeline timeline, @Nullable ScriptStream stream,
+                 Player player, Supplier<Location> location, boolean playAtLocation, CompletableFuture<Void> future) {
+            this.timeline = timeline;
+            this.stream = stream;
+            this.player = player;
+            this.location = location;
+            this.playAtLocation = playAtLocation;
+            this.future = future;
+        }
+
+        long elapsed() {
+            return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        }
+
+        /**
+         * Skips all the events before the position.
+         *
+         * @param position the position in milliseconds.
+         * @return true if there are more sounds to play.
+         */
+        boolean seek(long position) {
+            start = System.nanoTime() - TimeUnit.MILLISECONDS.toNanos(position);
+            index = timeline.indexAt(position);
+            if (index == timeline.events.length) return finish(timeline.length);
+
+            time = timeline.getTime(index);
+            return true;
+        }
+
+        /**
+         * Waits for the rests at the end of the music before completing.
+         *
+         * @param end the end of the music in milliseconds.
+         * @return true if the end of the music hasn't been reached yet.
+         */
+        boolean finish(long end) {
+            ending = true;
+            stalled = false;
+            time = end;
+            return end > elapsed();
+        }
+
+        /**
+         * Moves to the next non-empty timeline of the stream when the current timeline is finished.
+         *
+         * @return true if there are more sounds to play, the stream is still being parsed or the music hasn't ended yet.
+         */
+        boolean next() {
+            if (stream == null) {
+                if (radio == null || !radio.loop) return finish(timeline.length);
+
+                // The timeline is never empty here, otherwise it couldn't be played in the first place,
+                // and looping radios are never created with timelines that have no length.
+                start += TimeUnit.MILLISECONDS.toNanos(timeline.length);
+                index = 0;
+                time = Timeline.delta(timeline.events[0]);
+                return true;
+            }
+
+            long end = timelineStart + timeline.length;
+            while (true) {
+                boolean finished = stream.finished; // Must be read before the size.
+                if (nextTimeline < stream.timelines.size()) {
+                    timeline = stream.timelines.get(nextTimeline++);
+                    if (stalled) {
+                        end = Math.max(end, elapsed());
+                        stalled = false;
+                    }
+
+                    timelineStart = end;
+                    end += timeline.length;
+                    index = 0;
+                    if (timeline.events.length != 0) {
+                        time = timelineStart + Timeline.delta(timeline.events[0]);
+                        return true;
+                    }
+                } else if (finished) {
+                    Throwable error = stream.error;
+                    if (error != null) throw new IllegalStateException("Failed to parse music script", error);
+                    return finish(end);
+                } else {
+                    stalled = true;
+                    time = elapsed() + STALL_RETRY_MILLIS;
+                    return true;
+                }
+            }
+        }
+
+        /**
+         * Plays all the sounds that are due.
+         *
+         * @return true if there are more sounds to play.
+         */
+        boolean playDue() {
+            if (ending) return false;
+            if (radio == null && !playAtLocation && !player.isOnline()) return false;
+            if (stalled && !next()) return false;
+
+            long elapsed = elapsed();
+            while (!stalled && !ending && time <= elapsed) {
+                long[] events = timeline.events;
+                long event = events[index];
+                int sound = Timeline.sound(event);
+                org.bukkit.Sound bukkitSound;
+                // Timelines keep the sounds that are not supported in this version.
+                if (sound != Timeline.REST && (bukkitSound = Timeline.SOUNDS[sound].parseSound()) != null) {
+                    if (radio != null) {
+                        radio.play(bukkitSound, Timeline.volume(event), Timeline.pitch(event));
+                    } else if (playAtLocation) {
+                        Location finalLocation = location.get();
+                        finalLocation.getWorld().playSound(finalLocation, bukkitSound, Timeline.volume(event), Timeline.pitch(event));
+                    } else {
+                        player.playSound(location.get(), bukkitSound, Timeline.volume(event), Timeline.pitch(event));
+                    }
+                }
+
+                if (++index < events.length) time += Timeline.delta(events[index]);
+                else if (!next()) return false;
+                else elapsed = elapsed(); // Loops move the start time.
+            }
+            return true;
+        }
+
+        @Override
+        public long getDelay(@Nonnull TimeUnit unit) {
+            long due = start + TimeUnit.MILLISECONDS.toNanos(time);
+            return unit.convert(due - System.nanoTime(), TimeUnit.NANOSECONDS);
+        }
+
+        @Override
+        public int compareTo(@Nonnull Delayed other) {
+            return Long.compare(getDelay(TimeUnit.NANOSECONDS), other.getDelay(TimeUnit.NANOSECONDS));
+        }
+    }
+
+    /**
+     * The thread that plays all the timelines. A virtual thread is used if supported (Java 21+)
+     * Sounds are thread-safe, so they're sent directly from this thread.
+     */
+    private static final class Engine {
+        static final DelayQueue<Playback> QUEUE = new DelayQueue<>();
+        /**
+         * Started when the first music is played, or after {@link #shutdown()}
+         */
+        private static Thread thread;
+
+        static synchronized void add(Playback playback) {
+            if (thread == null) {
+                thread = newThread(Engine::run);
+                thread.start();
+            }
+            QUEUE.add(playback);
+        }
+
+        static synchronized void shutdown() {
+            if (thread != null) {
+                thread.interrupt();
+                thread = null;
+            }
+
+            // drainTo() only removes the playbacks that are due.
+            for (Playback playback : QUEUE.toArray(new Playback[0])) {
+                if (QUEUE.remove(playback)) playback.future.cancel(false);
+            }
+        }
+
+        private static Thread newThread(Runnable task) {
+            String name = "XSeries NoteBlockMusic";
+            try {
+                Class<?> builderClass = Class.forName("java.lang.Thread$Builder");
+                Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+                Method setName = builderClass.getMethod("name", String.class);
+                Method unstarted = builderClass.getMethod("unstarted", Runnable.class);
+                return (Thread) unstarted.invoke(setName.invoke(builder, name), task);
+            } catch (ReflectiveOperationException ignored) {
+                Thread thread = new Thread(task, name);
+                thread.setDaemon(true);
+                return thread;
+            }
+        }
+
+        private static void run() {
+            while (true) {
+                Playback playback;
+                try {
+                    playback = QUEUE.take();
+                } catch (InterruptedException e) {
+                    return;
+                }
+
+                if (playback.future.isDone()) continue; // Cancelled
+                try {
+                    if (!playback.playDue()) playback.future.complete(null);
+                    else if (!Thread.currentThread().isInterrupted()) QUEUE.add(playback);
+                    else {
+                        // Shut down while playing.
+                        playback.future.cancel(false);
+                        return;
+                    }
+                } catch (Throwable ex) {
+                    playback.future.completeExceptionally(ex);
+                }
+            }
+        }
+    }
 }
@@ -45,7 +45,7 @@ import java.util.concurrent.CompletableFuture;
  * <a href="https://minecraft.fandom.com/wiki/Java_Edition_1.18">1.18 removed biomes issue.</a>
  *
  * @author Crypto Morin
- * @version 6.1.1
+ * @version 6.2.0
  * @see Biome
  */
 public enum XBiome {
@@ -206,6 +206,8 @@ public enum XBiome {
      */
     @Nonnull
     private static String format(@Nonnull String name) {
+        if (isFormatted(name)) return name;
+
         int len = name.length();
         char[] chs = new char[len];
         int count = 0;
@@ -229,6 +231,30 @@ public enum XBiome {
         return new String(chs, 0, count);
     }
 
+    /**
+     * Checks if the biome name is already uppercase with single underscores between the words,
+     * e.g. {@code SNOWY_TAIGA}, in which case {@link #format(String)} doesn't need to build a new name.
+     * Biome names have no digits, so they're not accepted either.
+     *
+     * @param name the biome name to check.
+     * @return true if the name is already formatted.
+     * @since 6.2.0
+     */
+    private static boolean isFormatted(@Nonnull String name) {
+        int len = name.length();
+        if (len == 0 || name.charAt(0) == '_' || name.charAt(len - 1) == '_') return false;
+
+        char last = 0;
+        for (int i = 0; i < len; i++) {
+            char ch = name.charAt(i);
+            if (ch == '_') {
+                if (last == '_') return false;
+            } else if (!(ch >= 'A' && ch <= 'Z')) return false;
+            last = ch;
+        }
+        return true;
+    }
+
     /**
      * Parses the XBiome with the given name.
      *
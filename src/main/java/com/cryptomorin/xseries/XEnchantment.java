@@ -44,7 +44,7 @@ import java.util.stream.Collectors;
  * Enchanting: https://minecraft.gamepedia.com/Enchanting
  *
  * @author Crypto Morin
- * @version 2.3.0
+ * @version 2.4.0
  * @see Enchantment
  */
 public enum XEnchantment {
@@ -195,6 +195,8 @@ public enum XEnchantment {
      */
     @Nonnull
     private static String format(@Nonnull String name) {
+        if (isFormatted(name)) return name;
+
         int len = name.length();
         char[] chs = new char[len];
         int count = 0;
@@ -219,6 +221,30 @@ public enum XEnchantment {
         return new String(chs, 0, count);
     }
 
+    /**
+     * Checks if formatting the enchantment name would return the same name.
+     * The format only keeps English letters, so a formatted name such as {@code DAMAGE_ALL}
+     * consists of uppercase letters separated by single underscores and contains no digits.
+     *
+     * @param name the enchantment name to check.
+     * @return true if the name doesn't need to be formatted.
+     * @since 2.4.0
+     */
+    private static boolean isFormatted(@Nonnull String name) {
+        int len = name.length();
+        if (len == 0 || name.charAt(0) == '_' || name.charAt(len - 1) == '_') return false;
+
+        char last = 0;
+        for (int i = 0; i < len; i++) {
+            char ch = name.charAt(i);
+            if (ch == '_') {
+                if (last == '_') return false;
+            } else if (!(ch >= 'A' && ch <= 'Z')) return false;
+            last = ch;
+        }
+        return true;
+    }
+
     /**
      * Gets an enchantment from Vanilla and bukkit names.
      * There are also some aliases available.
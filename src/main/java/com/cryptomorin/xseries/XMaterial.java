@@ -35,11 +35,13 @@ import org.bukkit.potion.Potion;
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
 import java.util.concurrent.TimeUnit;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import java.util.regex.PatternSyntaxException;
-import java.util.stream.Collectors;
 
 /**
  * <b>XMaterial</b> - Data Values/Pre-flattening<br>
@@ -61,7 +63,7 @@ import java.util.stream.Collectors;
  * <b>/give @p minecraft:dirt 1 10</b> where 1 is the item amount, and 10 is the data value. The material {@link #DIRT} with a data value of {@code 10} doesn't exist.
  *
  * @author Crypto Morin
- * @version 11.4.1
+ * @version 11.5.0
  * @see Material
  * @see ItemStack
  */
@@ -1595,14 +1597,17 @@ public enum XMaterial {
     private static final Map<String, XMaterial> NAMES = new HashMap<>();
 
     /**
-     * Guava (Google Core Libraries for Java)'s cache for performance and timed caches.
-     * For strings that match a certain XMaterial. Mostly cached for configs.
+     * A precomputed lookup table for all the legacy names of every material.
+     * Each array is indexed by the data value offset by one, so that index {@code 0}
+     * holds the first material using this legacy name regardless of its data value ({@link #UNKNOWN_DATA_VALUE})
+     * and index {@code data + 1} holds the material using this legacy name with that exact data value.
+     * <p>
+     * Replaces the old timed name cache which had to concatenate the name and data value for every lookup.
      *
-     * @since 1.0.0
+     * @see #requestOldXMaterial(String, byte)
+     * @since 11.5.0
      */
-    private static final Cache<String, XMaterial> NAME_CACHE = CacheBuilder.newBuilder()
-            .expireAfterAccess(1, TimeUnit.HOURS)
-            .build();
+    private static final Map<String, XMaterial[]> LEGACY_NAMES = new HashMap<>();
     /**
      * This is used for {@link #isOneOf(Collection)}
      *
@@ -1632,6 +1637,24 @@ public enum XMaterial {
      * @since 8.1.0
      */
     private static final short MAX_ID = 2267;
+    /**
+     * The cached user-friendly names of all the materials for {@link #toString()} indexed by their ordinal.
+     *
+     * @since 11.5.0
+     */
+    private static final String[] FRIENDLY_NAMES = toFriendlyNames(Locale.getDefault());
+    /**
+     * The cached user-friendly names for {@link #toString(Locale)}
+     *
+     * @since 11.5.0
+     */
+    private static final Map<Locale, String[]> LOCALIZED_NAMES = new ConcurrentHashMap<>();
+    /**
+     * The minimum amount of material names for {@link #matchAll(Collection)} to split the work across multiple threads.
+     *
+     * @since 11.5.0
+     */
+    private static final int PARALLEL_MATCH_THRESHOLD = 10_000;
     /**
      * <b>XMaterial Paradox (Duplication Check)</b>
      * <p>
@@ -1644,9 +1667,37 @@ public enum XMaterial {
      * @since 3.0.0
      */
     private static final Set<String> DUPLICATED;
+    /**
+     * An ordinal-indexed lookup table of Bukkit's {@link Material} to their XMaterial used for
+     * {@link #matchXMaterial(ItemStack)} which is only available after the flattening update {@link Data#ISFLAT}
+     * since materials no longer depend on their data values.
+     * <p>
+     * Materials that need special handling are left as null, so they go through the normal matching process.
+     *
+     * @since 11.5.0
+     */
+    @Nullable
+    private static final XMaterial[] MATERIALS;
 
     static {
-        for (XMaterial material : VALUES) NAMES.put(material.name(), material);
+        for (XMaterial material : VALUES) {
+            NAMES.put(material.name(), material);
+
+            // The order of VALUES matters here, the first material that uses a legacy name wins.
+            int index = material.data + 1;
+            for (String legacy : material.legacy) {
+                XMaterial[] byData = LEGACY_NAMES.get(legacy);
+                if (byData == null) {
+                    byData = new XMaterial[index + 1];
+                    byData[0] = material;
+                    LEGACY_NAMES.put(legacy, byData);
+                } else if (byData.length <= index) {
+                    byData = Arrays.copyOf(byData, index + 1);
+                    LEGACY_NAMES.put(legacy, byData);
+                }
+                if (byData[index] == null) byData[index] = material;
+            }
+        }
     }
 
     static {
@@ -1664,6 +1715,20 @@ public enum XMaterial {
         }
     }
 
+    static {
+        if (Data.ISFLAT) {
+            Material[] materials = Material.values();
+            MATERIALS = new XMaterial[materials.length];
+            for (Material material : materials) {
+                // Same as the data value used in matchXMaterial(ItemStack)
+                MATERIALS[material.ordinal()] = matchDefinedXMaterial(material.name(), (byte) 0).orElse(null);
+            }
+        } else {
+            // Data values are needed to match materials, so this can't be used.
+            MATERIALS = null;
+        }
+    }
+
     /**
      * The data value of this material <a href="https://minecraft.gamepedia.com/Java_Edition_data_values/Pre-flattening">Pre-flattening</a>
      * It's never a negative number.
@@ -1678,27 +1743,10 @@ public enum XMaterial {
      */
     @Nonnull
     private final String[] legacy;
-    /**
-     * The cached Bukkit parsed material.
-     *
-     * @see #parseMaterial()
-     * @since 9.0.0
-     */
-    @Nullable
-    private final Material material;
 
     XMaterial(int data, @Nonnull String... legacy) {
         this.data = (byte) data;
         this.legacy = legacy;
-
-        Material mat = null;
-        if ((!Data.ISFLAT && this.isDuplicated()) || (mat = Material.getMaterial(this.name())) == null) {
-            for (int i = legacy.length - 1; i >= 0; i--) {
-                mat = Material.getMaterial(legacy[i]);
-                if (mat != null) break;
-            }
-        }
-        this.material = mat;
     }
 
     XMaterial(String... legacy) {
@@ -1731,26 +1779,19 @@ public enum XMaterial {
 
     /**
      * When using 1.13+, this helps to find the old material name
-     * with its data value using a cached search for optimization.
+     * with its data value using the precomputed {@link #LEGACY_NAMES} table.
      *
      * @see #matchDefinedXMaterial(String, byte)
      * @since 1.0.0
      */
     @Nullable
     private static XMaterial requestOldXMaterial(@Nonnull String name, byte data) {
-        String holder = name + data;
-        XMaterial cache = NAME_CACHE.getIfPresent(holder);
-        if (cache != null) return cache;
+        // Not using material.name().equals(name) check is intended.
+        XMaterial[] byData = LEGACY_NAMES.get(name);
+        if (byData == null) return null;
 
-        for (XMaterial material : VALUES) {
-            // Not using material.name().equals(name) check is intended.
-            if ((data == UNKNOWN_DATA_VALUE || data == material.data) && material.anyMatchLegacy(name)) {
-                NAME_CACHE.put(holder, material);
-                return material;
-            }
-        }
-
-        return null;
+        int index = data + 1;
+        return index >= 0 && index < byData.length ? byData[index] : null;
     }
 
     /**
@@ -1771,9 +1812,22 @@ public enum XMaterial {
      */
     @Nonnull
     private static Optional<XMaterial> matchXMaterialWithData(@Nonnull String name) {
+        if (name.indexOf(':') == -1) return Optional.empty();
+        return matchXMaterialWithData(name, new char[name.length()]);
+    }
+
+    /**
+     * Same as {@link #matchXMaterialWithData(String)} but uses the given buffer for formatting.
+     *
+     * @param buffer a buffer with a length of at least the length of the name.
+     * @see #format(String, int, int, char[])
+     * @since 11.5.0
+     */
+    @Nonnull
+    private static Optional<XMaterial> matchXMaterialWithData(@Nonnull String name, @Nonnull char[] buffer) {
         int index = name.indexOf(':');
         if (index != -1) {
-            String mat = format(name.substring(0, index));
+            String mat = format(name, 0, index, buffer);
             try {
                 // We don't use Byte.parseByte because we have our own range check.
                 byte data = (byte) Integer.parseInt(name.substring(index + 1).replace(" ", ""));
@@ -1798,8 +1852,80 @@ public enum XMaterial {
     public static Optional<XMaterial> matchXMaterial(@Nonnull String name) {
         if (name == null || name.isEmpty())
             throw new IllegalArgumentException("Cannot match a material with null or empty material name");
-        Optional<XMaterial> oldMatch = matchXMaterialWithData(name);
-        return oldMatch.isPresent() ? oldMatch : matchDefinedXMaterial(format(name), UNKNOWN_DATA_VALUE);
+        // Formatted names never have a data value, so they don't need a buffer.
+        if (isFormatted(name)) return matchDefinedXMaterial(name, UNKNOWN_DATA_VALUE);
+        return matchXMaterial(name, new char[name.length()]);
+    }
+
+    /**
+     * Same as {@link #matchXMaterial(String)} but uses the given buffer for formatting.
+     *
+     * @param buffer a buffer with a length of at least the length of the name.
+     * @since 11.5.0
+     */
+    @Nonnull
+    private static Optional<XMaterial> matchXMaterial(@Nonnull String name, @Nonnull char[] buffer) {
+        Optional<XMaterial> oldMatch = matchXMaterialWithData(name, buffer);
+        return oldMatch.isPresent() ? oldMatch : matchDefinedXMaterial(format(name, 0, name.length(), buffer), UNKNOWN_DATA_VALUE);
+    }
+
+    /**
+     * Parses all the given material names at once, mostly used for large configs.
+     * This uses the same format as {@link #matchXMaterial(String)}, but reuses the same
+     * formatting buffer for all the names and splits the work across {@link ForkJoinPool#commonPool()}
+     * if there are more than {@link #PARALLEL_MATCH_THRESHOLD} names.
+     * <p>
+     * Null or empty names are reported as unmatched instead of throwing an exception.
+     *
+     * @param names the material names to parse.
+     * @return the parsed materials and the names that didn't match any material.
+     * @see #matchXMaterial(String)
+     * @since 11.5.0
+     */
+    @Nonnull
+    public static MatchResult matchAll(@Nonnull Collection<String> names) {
+        Objects.requireNonNull(names, "Cannot match null material names");
+        // Names are accessed by index, so lists such as LinkedList are copied first.
+        List<String> list = names instanceof List && names instanceof RandomAccess ? (List<String>) names : new ArrayList<>(names);
+        int size = list.size();
+        int parallelism = ForkJoinPool.getCommonPoolParallelism();
+        if (size < PARALLEL_MATCH_THRESHOLD || parallelism <= 1) return matchAll(list, 0, size);
+
+        int chunk = (size + parallelism - 1) / parallelism;
+        List<ForkJoinTask<MatchResult>> tasks = new ArrayList<>(parallelism);
+        for (int from = 0; from < size; from += chunk) {
+            int start = from, end = Math.min(from + chunk, size);
+            tasks.add(ForkJoinPool.commonPool().submit(() -> matchAll(list, start, end)));
+        }
+
+        MatchResult result = new MatchResult();
+        // Joined in order, so the unmatched names keep the same order as the given names.
+        for (ForkJoinTask<MatchResult> task : tasks) {
+            MatchResult partial = task.join();
+            result.materials.addAll(partial.materials);
+            result.unmatched.addAll(partial.unmatched);
+        }
+        return result;
+    }
+
+    @Nonnull
+    private static MatchResult matchAll(@Nonnull List<String> names, int from, int to) {
+        MatchResult result = new MatchResult();
+        char[] buffer = new char[32];
+
+        for (int i = from; i < to; i++) {
+            String name = names.get(i);
+            if (name == null || name.isEmpty()) {
+                result.unmatched.add(name);
+                continue;
+            }
+            if (buffer.length < name.length()) buffer = new char[name.length()];
+
+            Optional<XMaterial> material = matchXMaterial(name, buffer);
+            if (material.isPresent()) result.materials.add(material.get());
+            else result.unmatched.add(name);
+        }
+        return result;
     }
 
     /**
@@ -1831,12 +1957,17 @@ public enum XMaterial {
     @SuppressWarnings("deprecation")
     public static XMaterial matchXMaterial(@Nonnull ItemStack item) {
         Objects.requireNonNull(item, "Cannot match null ItemStack");
-        String material = item.getType().name();
+        Material type = item.getType();
+        if (Data.ISFLAT) {
+            XMaterial xMaterial = MATERIALS[type.ordinal()];
+            if (xMaterial != null) return xMaterial;
+        }
+        String material = type.name();
 
         // 1.13+ doesn't use data values at all.
         // Maps are given different data values for different parts of the map also some plugins use negative values for custom images.
         // Items that have durability, such as armor and tools don't use the data value to distinguish their material.
-        byte data = (byte) (Data.ISFLAT || material.equals("MAP") || item.getType().getMaxDurability() > 0 ? 0 : item.getDurability());
+        byte data = (byte) (Data.ISFLAT || material.equals("MAP") || type.getMaxDurability() > 0 ? 0 : item.getDurability());
 
         // Versions 1.9-1.12 didn't really use the items data value.
         if (supports(9) && !supports(13) && item.hasItemMeta() && material.equals("MONSTER_EGG")) {
@@ -1883,18 +2014,16 @@ public enum XMaterial {
      * @return a parsed XMaterial with the same ID and data value.
      * @see #matchXMaterial(ItemStack)
      * @since 2.0.0
-     * @deprecated this method loops through all the available materials and matches their ID using {@link #getId()}
-     * which takes a really long time. Plugins should no longer support IDs. If you want, you can make a {@link Map} cache yourself.
+     * @deprecated Plugins should no longer support IDs. The first call to this method builds an ID index
+     * by calling {@link #getId()} for all the materials, subsequent calls are constant time lookups.
      * This method obviously doesn't work for 1.13+ and will not be supported. This is only here for debugging purposes.
      */
     @Nonnull
     @Deprecated
     public static Optional<XMaterial> matchXMaterial(int id, byte data) {
         if (id < 0 || id > MAX_ID || data < 0) return Optional.empty();
-        for (XMaterial materials : VALUES) {
-            if (materials.data == data && materials.getId() == id) return Optional.of(materials);
-        }
-        return Optional.empty();
+        XMaterial[] byData = IdIndex.IDS[id];
+        return byData != null && data < byData.length ? Optional.ofNullable(byData[data]) : Optional.empty();
     }
 
     /**
@@ -1963,15 +2092,32 @@ public enum XMaterial {
      */
     @Nonnull
     protected static String format(@Nonnull String name) {
-        int len = name.length();
-        char[] chs = new char[len];
+        if (isFormatted(name)) return name;
+        return format(name, 0, name.length(), new char[name.length()]);
+    }
+
+    /**
+     * Same as {@link #format(String)} but only formats the given range of the name
+     * and uses the given buffer which can be reused for multiple names.
+     *
+     * @param name  the material name to modify.
+     * @param start the start index of the name (inclusive)
+     * @param end   the end index of the name (exclusive)
+     * @param chs   a buffer with a length of at least {@code end - start}
+     * @return an enum name.
+     * @since 11.5.0
+     */
+    @Nonnull
+    private static String format(@Nonnull String name, int start, int end, @Nonnull char[] chs) {
+        if (start == 0 && end == name.length() && isFormatted(name)) return name;
+
         int count = 0;
         boolean appendUnderline = false;
 
-        for (int i = 0; i < len; i++) {
+        for (int i = start; i < end; i++) {
             char ch = name.charAt(i);
 
-            if (!appendUnderline && count != 0 && (ch == '-' || ch == ' ' || ch == '_') && chs[count] != '_')
+            if (!appendUnderline && count != 0 && (ch == '-' || ch == ' ' || ch == '_'))
                 appendUnderline = true;
             else {
                 boolean number = false;
@@ -1991,6 +2137,30 @@ public enum XMaterial {
         return new String(chs, 0, count);
     }
 
+    /**
+     * Checks if the material name is already written like an enum name, e.g. {@code DIAMOND_SWORD} or {@code RECORD_11}
+     * Only uppercase letters and digits separated by single underscores are accepted,
+     * since the format keeps the digits of old materials.
+     *
+     * @param name the material name to check.
+     * @return true if {@link #format(String)} would return the same name.
+     * @since 11.5.0
+     */
+    private static boolean isFormatted(@Nonnull String name) {
+        int len = name.length();
+        if (len == 0 || name.charAt(0) == '_' || name.charAt(len - 1) == '_') return false;
+
+        char last = 0;
+        for (int i = 0; i < len; i++) {
+            char ch = name.charAt(i);
+            if (ch == '_') {
+                if (last == '_') return false;
+            } else if (!((ch >= 'A' && ch <= 'Z') || (ch >= '0' && ch <= '9'))) return false;
+            last = ch;
+        }
+        return true;
+    }
+
     /**
      * Checks if the specified version is the same version or higher than the current server version.
      *
@@ -2038,9 +2208,13 @@ public enum XMaterial {
      * If you want to use groups, use {@code (?: non-capturing groups)}. It's faster.
      * <p>
      * Want to learn RegEx? You can mess around in <a href="https://regexr.com/">RegExr</a> website.
+     * <p>
+     * If the same list is checked frequently, use {@link MaterialMatcher#compile(Collection)} instead
+     * which parses the list only once.
      *
      * @param materials the material names to check base material on.
      * @return true if one of the given material names is similar to the base material.
+     * @see MaterialMatcher
      * @since 3.1.1
      */
     public boolean isOneOf(@Nullable Collection<String> materials) {
@@ -2098,21 +2272,6 @@ public enum XMaterial {
         return item;
     }
 
-    /**
-     * Checks if the given material name matches any of this xmaterial's legacy material names.
-     * All the values passed to this method will not be null or empty and are formatted correctly.
-     *
-     * @param name the material name to check.
-     * @return true if it's one of the legacy names, otherwise false.
-     * @since 2.0.0
-     */
-    private boolean anyMatchLegacy(@Nonnull String name) {
-        for (int i = this.legacy.length - 1; i >= 0; i--) {
-            if (name.equals(this.legacy[i])) return true;
-        }
-        return false;
-    }
-
     /**
      * Parses an enum name to a user-friendly name.
      * These names will have underlines removed and with each word capitalized.
@@ -2125,14 +2284,60 @@ public enum XMaterial {
      * </pre>
      *
      * @return a more user-friendly enum name.
+     * @see #toString(Locale)
      * @since 3.0.0
      */
     @Override
     @Nonnull
     public String toString() {
-        return Arrays.stream(name().split("_"))
-                .map(t -> t.charAt(0) + t.substring(1).toLowerCase())
-                .collect(Collectors.joining(" "));
+        return FRIENDLY_NAMES[this.ordinal()];
+    }
+
+    /**
+     * Same as {@link #toString()} but uses the given locale to change the case of the words.
+     * The names are cached for each locale after the first call.
+     *
+     * @param locale the locale used to lowercase the words.
+     * @return a more user-friendly enum name.
+     * @since 11.5.0
+     */
+    @Nonnull
+    public String toString(@Nonnull Locale locale) {
+        Objects.requireNonNull(locale, "Cannot format material name with null locale");
+        return LOCALIZED_NAMES.computeIfAbsent(locale, XMaterial::toFriendlyNames)[this.ordinal()];
+    }
+
+    /**
+     * Builds the user-friendly names of all the materials indexed by their ordinal.
+     *
+     * @param locale the locale used to lowercase the words.
+     * @see #toString()
+     * @since 11.5.0
+     */
+    @Nonnull
+    private static String[] toFriendlyNames(@Nonnull Locale locale) {
+        String[] names = new String[VALUES.length];
+        StringBuilder builder = new StringBuilder(40);
+
+        for (XMaterial material : VALUES) {
+            String name = material.name();
+            builder.setLength(0);
+
+            int start = 0;
+            while (true) {
+                int end = name.indexOf('_', start);
+                if (end == -1) end = name.length();
+
+                if (start != 0) builder.append(' ');
+                builder.append(name.charAt(start)).append(name.substring(start + 1, end).toLowerCase(locale));
+
+                if (end == name.length()) break;
+                start = end + 1;
+            }
+            names[material.ordinal()] = builder.toString();
+        }
+
+        return names;
     }
 
     /**
@@ -2196,7 +2401,7 @@ public enum XMaterial {
      */
     @Nullable
     public Material parseMaterial() {
-        return this.material;
+        return ParsedMaterials.MATERIALS[this.ordinal()];
     }
 
     /**
@@ -2224,7 +2429,7 @@ public enum XMaterial {
      * @since 2.0.0
      */
     public boolean isSupported() {
-        return this.material != null;
+        return this.parseMaterial() != null;
     }
 
     /**
@@ -2260,7 +2465,7 @@ public enum XMaterial {
 
     /**
      * This method is needed due to Java enum initialization limitations.
-     * It's really inefficient yes, but it's only used for initialization.
+     * It's really inefficient yes, but it's only used for initialization of {@link ParsedMaterials}
      * <p>
      * Yes there are many other ways like comparing the hardcoded ordinal or using a boolean in the enum constructor,
      * but it's not really a big deal.
@@ -2298,6 +2503,193 @@ public enum XMaterial {
         }
     }
 
+    /**
+     * The result of {@link #matchAll(Collection)}
+     *
+     * @since 11.5.0
+     */
+    public static final class MatchResult {
+        private final EnumSet<XMaterial> materials = EnumSet.noneOf(XMaterial.class);
+        private final List<String> unmatched = new ArrayList<>();
+
+        private MatchResult() {}
+
+        /**
+         * All the materials that were matched from the given names.
+         *
+         * @return an unmodifiable set of the matched materials.
+         * @since 11.5.0
+         */
+        @Nonnull
+        public Set<XMaterial> getMaterials() {
+            return Collections.unmodifiableSet(materials);
+        }
+
+        /**
+         * The names that didn't match any material in the same order as they were given.
+         *
+         * @return an unmodifiable list of the unmatched material names.
+         * @since 11.5.0
+         */
+        @Nonnull
+        public List<String> getUnmatched() {
+            return Collections.unmodifiableList(unmatched);
+        }
+    }
+
+    /**
+     * A precompiled version of {@link #isOneOf(Collection)} for material lists that are checked frequently.
+     * Since the list of materials is finite, all the {@code CONTAINS} and {@code REGEX} entries are
+     * evaluated against every material once when compiling, so checking a material is only a bitset test.
+     * <p>
+     * <b>Example:</b>
+     * <blockquote><pre>
+     *     MaterialMatcher disabled = MaterialMatcher.compile(plugin.getConfig().getStringList("disabled-items"));
+     *     if (disabled.matches(XMaterial.matchXMaterial(item))) return;
+     * </pre></blockquote>
+     *
+     * @see #isOneOf(Collection)
+     * @since 11.5.0
+     */
+    public static final class MaterialMatcher {
+        private final Set<XMaterial> materials;
+
+        private MaterialMatcher(Set<XMaterial> materials) {
+            this.materials = materials;
+        }
+
+        /**
+         * Compiles the given list of material names using the same format as {@link #isOneOf(Collection)}
+         *
+         * @param materials the material names to compile.
+         * @return a matcher that matches the same materials as {@link #isOneOf(Collection)} would for the given list.
+         * @since 11.5.0
+         */
+        @Nonnull
+        public static MaterialMatcher compile(@Nullable Collection<String> materials) {
+            EnumSet<XMaterial> matched = EnumSet.noneOf(XMaterial.class);
+            if (materials == null || materials.isEmpty()) return new MaterialMatcher(matched);
+
+            List<String> contains = new ArrayList<>();
+            List<Pattern> patterns = new ArrayList<>();
+            for (String comp : materials) {
+                String checker = comp.toUpperCase(Locale.ENGLISH);
+                if (checker.startsWith("CONTAINS:")) {
+                    contains.add(format(checker.substring(9)));
+                    continue;
+                }
+                if (checker.startsWith("REGEX:")) {
+                    try {
+                        patterns.add(Pattern.compile(comp.substring(6)));
+                    } catch (PatternSyntaxException ex) {
+                        ex.printStackTrace();
+                    }
+                    continue;
+                }
+
+                // Direct Object Equals
+                matchXMaterial(comp).ifPresent(matched::add);
+            }
+
+            if (!contains.isEmpty() || !patterns.isEmpty()) {
+                for (XMaterial material : VALUES) {
+                    if (matched.contains(material)) continue;
+                    if (matches(material.name(), contains, patterns)) matched.add(material);
+                }
+            }
+
+            return new MaterialMatcher(matched);
+        }
+
+        private static boolean matches(String name, List<String> contains, List<Pattern> patterns) {
+            for (String comp : contains) {
+                if (name.contains(comp)) return true;
+            }
+            for (Pattern pattern : patterns) {
+                if (pattern.matcher(name).matches()) return true;
+            }
+            return false;
+        }
+
+        /**
+         * Checks if the given material is one of the compiled materials.
+         *
+         * @param material the material to check.
+         * @return true if the material matches any of the compiled material names.
+         * @since 11.5.0
+         */
+        public boolean matches(@Nullable XMaterial material) {
+            return material != null && this.materials.contains(material);
+        }
+
+        /**
+         * All the materials that this matcher matches.
+         *
+         * @return an unmodifiable set of the matched materials.
+         * @since 11.5.0
+         */
+        @Nonnull
+        public Set<XMaterial> getMaterials() {
+            return Collections.unmodifiableSet(this.materials);
+        }
+    }
+
+    /**
+     * The cached Bukkit parsed materials indexed by the ordinal of their XMaterial.
+     * Materials are resolved in one pass the first time any material is parsed,
+     * so matching materials doesn't need to pay for parsing every material when the class is loaded.
+     *
+     * @see #parseMaterial()
+     * @since 11.5.0
+     */
+    private static final class ParsedMaterials {
+        private static final Material[] MATERIALS = new Material[VALUES.length];
+
+        static {
+            Material[] materials = Material.values();
+            Map<String, Material> names = new HashMap<>(materials.length * 4 / 3 + 1);
+            for (Material material : materials) names.put(material.name(), material);
+
+            for (XMaterial xMaterial : VALUES) {
+                Material material = null;
+                if ((!Data.ISFLAT && xMaterial.isDuplicated()) || (material = names.get(xMaterial.name())) == null) {
+                    String[] legacy = xMaterial.legacy;
+                    for (int i = legacy.length - 1; i >= 0; i--) {
+                        material = names.get(legacy[i]);
+                        if (material != null) break;
+                    }
+                }
+                MATERIALS[xMaterial.ordinal()] = material;
+            }
+        }
+    }
+
+    /**
+     * A lazily initialized reverse index of material IDs and data values used for {@link #matchXMaterial(int, byte)}
+     * The index is only built once this class is first accessed.
+     *
+     * @since 11.5.0
+     */
+    private static final class IdIndex {
+        /**
+         * Indexed by the material ID, then by the data value. Missing IDs and data values are null.
+         */
+        private static final XMaterial[][] IDS = new XMaterial[MAX_ID + 1][];
+
+        static {
+            for (XMaterial material : VALUES) {
+                int id = material.getId();
+                if (id < 0 || id > MAX_ID) continue;
+
+                // The first material with the same ID and data value wins, same as the old linear search.
+                XMaterial[] byData = IDS[id];
+                if (byData == null) IDS[id] = byData = new XMaterial[material.data + 1];
+                else if (byData.length <= material.data) IDS[id] = byData = Arrays.copyOf(byData, material.data + 1);
+                if (byData[material.data] == null) byData[material.data] = material;
+            }
+        }
+    }
+
     /**
      * Used for data that need to be accessed during enum initialization.
      *
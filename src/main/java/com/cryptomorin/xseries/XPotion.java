@@ -50,7 +50,7 @@ import java.util.stream.Collectors;
  * Potions: https://minecraft.gamepedia.com/Potion
  *
  * @author Crypto Morin
- * @version 3.1.0
+ * @version 3.2.0
  * @see PotionEffect
  * @see PotionEffectType
  * @see PotionType
@@ -140,6 +140,8 @@ public enum XPotion {
      */
     @Nonnull
     private static String format(@Nonnull String name) {
+        if (isFormatted(name)) return name;
+
         int len = name.length();
         char[] chs = new char[len];
         int count = 0;
@@ -164,6 +166,30 @@ public enum XPotion {
         return new String(chs, 0, count);
     }
 
+    /**
+     * Checks if the potion effect name only consists of uppercase words separated by single underscores,
+     * like {@code DAMAGE_RESISTANCE}, which is returned by {@link #format(String)} unchanged.
+     * Digits are removed when formatting, so names such as {@code SPEED2} still need to be formatted.
+     *
+     * @param name the potion effect type name to check.
+     * @return true if the name is already formatted.
+     * @since 3.2.0
+     */
+    private static boolean isFormatted(@Nonnull String name) {
+        int len = name.length();
+        if (len == 0 || name.charAt(0) == '_' || name.charAt(len - 1) == '_') return false;
+
+        char last = 0;
+        for (int i = 0; i < len; i++) {
+            char ch = name.charAt(i);
+            if (ch == '_') {
+                if (last == '_') return false;
+            } else if (!(ch >= 'A' && ch <= 'Z')) return false;
+            last = ch;
+        }
+        return true;
+    }
+
     /**
      * Parses a potion effect type from the given string.
      * Supports type IDs.
@@ -27,16 +27,23 @@ import org.bukkit.Instrument;
 import org.bukkit.Location;
 import org.bukkit.Note;
 import org.bukkit.Sound;
+import org.bukkit.World;
+import org.bukkit.configuration.ConfigurationSection;
 import org.bukkit.entity.Entity;
 import org.bukkit.entity.Player;
 import org.bukkit.plugin.Plugin;
 import org.bukkit.scheduler.BukkitRunnable;
 import org.bukkit.scheduler.BukkitTask;
+import org.bukkit.util.NumberConversions;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 import java.util.*;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.logging.Level;
 import java.util.stream.Collectors;
 
 /**
@@ -55,7 +62,7 @@ import java.util.stream.Collectors;
  * play command: <a href="https://minecraft.gamepedia.com/Commands/play">minecraft.gamepedia.com</a>
  *
  * @author Crypto Morin
- * @version 9.2.0
+ * @version 9.3.0
  * @see Sound
  */
 public enum XSound {
@@ -1568,6 +1575,23 @@ public enum XSound {
 
     public static final float DEFAULT_VOLUME = 1.0f, DEFAULT_PITCH = 1.0f;
 
+    /**
+     * Efficient mapping to get {@link XSound} from a {@link Sound} indexed by the sound's ordinal.
+     *
+     * @see #matchXSound(Sound)
+     * @since 9.3.0
+     */
+    private static final XSound[] BUKKIT_MAPPING;
+
+    static {
+        Sound[] sounds = Sound.values();
+        BUKKIT_MAPPING = new XSound[sounds.length];
+        for (Sound sound : sounds) BUKKIT_MAPPING[sound.ordinal()] = Data.NAMES.get(sound.name());
+
+        // Only needed for the enum initialization.
+        Data.BUKKIT_NAMES.clear();
+    }
+
     @Nullable
     private final Sound sound;
 
@@ -1599,6 +1623,8 @@ public enum XSound {
      */
     @Nonnull
     private static String format(@Nonnull String name) {
+        if (isFormatted(name)) return name;
+
         int len = name.length();
         char[] chs = new char[len];
         int count = 0;
@@ -1627,6 +1653,30 @@ public enum XSound {
         return new String(chs, 0, count);
     }
 
+    /**
+     * Checks if the sound name needs formatting at all. Sound names are usually copied as they are from
+     * the Bukkit enum, like {@code BLOCK_NOTE_BLOCK_HARP}, which only has uppercase letters, single underscores
+     * and digits for the few sounds that have them, e.g. {@code MUSIC_DISC_11}
+     *
+     * @param name the sound name to check.
+     * @return false if {@link #format(String)} would change the name.
+     * @since 9.3.0
+     */
+    private static boolean isFormatted(@Nonnull String name) {
+        int len = name.length();
+        if (len == 0 || name.charAt(0) == '_' || name.charAt(len - 1) == '_') return false;
+
+        char last = 0;
+        for (int i = 0; i < len; i++) {
+            char ch = name.charAt(i);
+            if (ch == '_') {
+                if (last == '_') return false;
+            } else if (!((ch >= 'A' && ch <= 'Z') || (ch >= '0' && ch <= '9'))) return false;
+            last = ch;
+        }
+        return true;
+    }
+
     /**
      * Parses the XSound with the given name.
      *
@@ -1652,7 +1702,7 @@ public enum XSound {
     @Nonnull
     public static XSound matchXSound(@Nonnull Sound sound) {
         Objects.requireNonNull(sound, "Cannot match XSound of a null sound");
-        return Objects.requireNonNull(Data.NAMES.get(sound.name()), () -> "Unsupported sound: " + sound.name());
+        return Objects.requireNonNull(BUKKIT_MAPPING[sound.ordinal()], () -> "Unsupported sound: " + sound.name());
     }
 
     private static List<String> split(@Nonnull String str, @SuppressWarnings("SameParameterValue") char separatorChar) {
@@ -1718,6 +1768,7 @@ public enum XSound {
      * <p>
      *
      * @param sound the string of the sound with volume and pitch (if needed).
+     * @see RecordRegistry
      * @since 7.0.0
      */
     @Nullable
@@ -1795,6 +1846,7 @@ public enum XSound {
      * @param ascendLevel the ascend level of notes. Can only be positive and not higher than 7
      * @param delay       the delay between each play.
      * @return the async task handling the operation.
+     * @see Sequencer
      * @since 2.0.0
      */
     @Nonnull
@@ -1868,6 +1920,7 @@ public enum XSound {
      * @param delay  the delay between each repeat.
      * @return the async task handling this operation.
      * @see #play(Location, float, float)
+     * @see Sequencer
      * @since 2.0.0
      */
     @Nonnull
@@ -1886,6 +1939,7 @@ public enum XSound {
      * @param delay    the delay between each repeat.
      * @return the async task handling this operation.
      * @see #play(Location, float, float)
+     * @see Sequencer
      * @since 2.0.0
      */
     @Nonnull
@@ -2025,11 +2079,11 @@ public enum XSound {
      */
     private static final class Data {
         /**
-         * Just for enum initialization.
+         * Just for enum initialization. Cleared once the enum is initialized.
          *
          * @since 5.0.0
          */
-        private static final WeakHashMap<String, Sound> BUKKIT_NAMES = new WeakHashMap<>();
+        private static final Map<String, Sound> BUKKIT_NAMES = new HashMap<>();
         /**
          * We don't want to use {@link Enums#getIfPresent(Class, String)} to avoid a few checks.
          *
@@ -2127,6 +2181,37 @@ public enum XSound {
             }
         }
 
+        /**
+         * Plays this sound without changing or cloning this record, useful for records that are shared as templates.
+         * Follows the same rules as {@link #play(Location)} where the sound is only played to the player
+         * if a player is given and {@link #playAtLocation} is false, otherwise everyone near the location can hear it.
+         *
+         * @param player   the player to play the sound to, or null to play it at the location.
+         * @param location the location to play the sound at.
+         * @see RecordRegistry
+         * @since 9.3.0
+         */
+        public void play(@Nullable Player player, @Nonnull Location location) {
+            Objects.requireNonNull(location, "Cannot play sound at null location");
+            Sound bukkitSound = sound.parseSound();
+            if (bukkitSound == null) return;
+
+            if (playAtLocation || player == null) location.getWorld().playSound(location, bukkitSound, volume, pitch);
+            else player.playSound(location, bukkitSound, volume, pitch);
+        }
+
+        /**
+         * Plays this sound to the given player at their location without changing or cloning this record.
+         *
+         * @param player the player to play the sound to.
+         * @see #play(Player, Location)
+         * @since 9.3.0
+         */
+        public void play(@Nonnull Player player) {
+            Objects.requireNonNull(player, "Cannot play sound to null player");
+            play(player, player.getLocation());
+        }
+
         /**
          * Stops the sound playing to the players that this sound was played to.
          * Note this works fine if the sound was played to one specific player, but for
@@ -2163,4 +2248,705 @@ public enum XSound {
             );
         }
     }
+
+    /**
+     * Compiles sound strings from configs into {@link Record} templates once, so they don't have to
+     * be parsed with {@link #parse(String)} every time they're played.
+     * <p>
+     * The records returned from this registry are shared, don't change their properties.
+     * Use {@link Record#play(Player, Location)} or {@link Record#play(Player)} to play them instead.
+     * <p>
+     * <b>Example:</b>
+     * <blockquote><pre>
+     *     RecordRegistry sounds = new RecordRegistry();
+     *     sounds.load(plugin.getConfig().getConfigurationSection("sounds"));
+     *     // Later:
+     *     Record record = sounds.get("level-up");
+     *     if (record != null) record.play(player);
+     * </pre></blockquote>
+     *
+     * @since 9.3.0
+     */
+    public static final class RecordRegistry {
+        /**
+         * The original sound strings, used to only parse the entries that changed when reloading.
+         */
+        private final Map<String, String> sources = new ConcurrentHashMap<>();
+        private final Map<String, Record> records = new ConcurrentHashMap<>();
+
+        /**
+         * Gets the compiled record for the given key.
+         *
+         * @param key the key of the sound.
+         * @return the record, or null if there's no sound with this key or the sound is {@code none}
+         * @since 9.3.0
+         */
+        @Nullable
+        public Record get(@Nonnull String key) {
+            return records.get(key);
+        }
+
+        /**
+         * Loads all the string values in the given section (including subsections) with the format of {@link #parse(String)}
+         * Keys are the full paths of the values.
+         *
+         * @param section the section to load the sounds from.
+         * @return the keys that failed to parse with their errors.
+         * @see #load(Map)
+         * @since 9.3.0
+         */
+        @Nonnull
+        public Map<String, IllegalArgumentException> load(@Nonnull ConfigurationSection section) {
+            Objects.requireNonNull(section, "Cannot load sounds from null section");
+            Map<String, String> sounds = new HashMap<>();
+            for (String key : section.getKeys(true)) {
+                if (section.isString(key)) sounds.put(key, section.getString(key));
+            }
+            return load(sounds);
+        }
+
+        /**
+         * Loads the given sounds with the format of {@link #parse(String)}
+         * Only the sounds that were changed since the last load are parsed again, and keys
+         * that are no longer present are removed.
+         * <p>
+         * Sounds that fail to parse are removed from the registry and returned, the rest of the sounds will still be loaded.
+         *
+         * @param sounds the sound strings mapped by their keys.
+         * @return the keys that failed to parse with their errors.
+         * @since 9.3.0
+         */
+        @Nonnull
+        public Map<String, IllegalArgumentException> load(@Nonnull Map<String, String> sounds) {
+            Objects.requireNonNull(sounds, "Cannot load null sounds");
+            Map<String, IllegalArgumentException> errors = new HashMap<>();
+
+            sources.keySet().retainAll(sounds.keySet());
+            records.keySet().retainAll(sounds.keySet());
+
+            for (Map.Entry<String, String> entry : sounds.entrySet()) {
+                String key = entry.getKey();
+                String sound = entry.getValue();
+                if (sound == null) {
+                    sources.remove(key);
+                    records.remove(key);
+                    continue;
+                }
+                if (sound.equals(sources.get(key))) continue;
+
+                try {
+                    Record record = parse(sound);
+                    if (record == null) records.remove(key);
+                    else records.put(key, record);
+                    sources.put(key, sound);
+                } catch (IllegalArgumentException ex) {
+                    sources.remove(key);
+                    records.remove(key);
+                    errors.put(key, ex);
+                }
+            }
+
+            return errors;
+        }
+
+        /**
+         * Removes all the loaded sounds.
+         *
+         * @since 9.3.0
+         */
+        public void clear() {
+            sources.clear();
+            records.clear();
+        }
+    }
+
+    /**
+     * Collects many area sounds (for example from explosions or fireworks in the same tick)
+     * and plays them all at once. Instead of {@link World#playSound(Location, Sound, float, float)}
+     * checking every player in the world for each sound, players are indexed by their chunk once
+     * and each sound is only sent to the players that are in its hearing range.
+     * <p>
+     * The hearing range is the same as vanilla, {@code 16} blocks, or {@code 16 * volume} blocks if the volume is higher than 1.
+     * This class is not thread-safe and {@link #play()} must be called from the main thread.
+     * <p>
+     * <b>Example:</b>
+     * <blockquote><pre>
+     *     Batch batch = new Batch();
+     *     for (Location explosion : explosions) batch.add(XSound.ENTITY_GENERIC_EXPLODE, explosion, 4, 1);
+     *     batch.play();
+     * </pre></blockquote>
+     *
+     * @since 9.3.0
+     */
+    public static final class Batch {
+        private static final double DEFAULT_RANGE = 16;
+        private final List<Entry> entries = new ArrayList<>();
+
+        /**
+         * Adds a sound to this batch. Unsupported sounds are ignored.
+         *
+         * @param sound    the sound to play.
+         * @param location the location to play the sound at.
+         * @param volume   the volume of the sound, 1 is normal.
+         * @param pitch    the pitch of the sound, 0 is normal.
+         * @return this batch.
+         * @since 9.3.0
+         */
+        @Nonnull
+        public Batch add(@Nonnull XSound sound, @Nonnull Location location, float volume, float pitch) {
+            Objects.requireNonNull(sound, "Cannot add null sound");
+            Objects.requireNonNull(location, "Cannot play sound at null location");
+            Objects.requireNonNull(location.getWorld(), "Cannot play sound at location with null world");
+
+            Sound bukkitSound = sound.parseSound();
+            if (bukkitSound != null) entries.add(new Entry(bukkitSound, location, volume, pitch));
+            return this;
+        }
+
+        /**
+         * Adds a sound record to this batch using its volume and pitch.
+         *
+         * @param record   the sound to play.
+         * @param location the location to play the sound at.
+         * @return this batch.
+         * @since 9.3.0
+         */
+        @Nonnull
+        public Batch add(@Nonnull Record record, @Nonnull Location location) {
+            Objects.requireNonNull(record, "Cannot add null sound record");
+            return add(record.sound, location, record.volume, record.pitch);
+        }
+
+        /**
+         * The amount of sounds waiting to be played.
+         *
+         * @return the amount of sounds in this batch.
+         * @since 9.3.0
+         */
+        public int size() {
+            return entries.size();
+        }
+
+        /**
+         * Plays all the sounds in this batch to the players who can hear them and clears the batch.
+         *
+         * @since 9.3.0
+         */
+        public void play() {
+            if (entries.isEmpty()) return;
+            Map<World, WorldIndex> indexes = new HashMap<>();
+
+            for (Entry entry : entries) {
+                Location location = entry.location;
+                WorldIndex index = indexes.computeIfAbsent(location.getWorld(), WorldIndex::new);
+                if (index.listeners.isEmpty()) continue;
+
+                double range = entry.volume > 1 ? DEFAULT_RANGE * entry.volume : DEFAULT_RANGE;
+                double x = location.getX(), y = location.getY(), z = location.getZ();
+                int minX = (int) Math.floor(x - range) >> 4, maxX = (int) Math.floor(x + range) >> 4;
+                int minZ = (int) Math.floor(z - range) >> 4, maxZ = (int) Math.floor(z + range) >> 4;
+
+                // For very loud sounds it's cheaper to just check all the players.
+                if ((long) (maxX - minX + 1) * (maxZ - minZ + 1) > index.listeners.size()) {
+                    index.play(index.listeners, entry, range);
+                } else {
+                    for (int chunkX = minX; chunkX <= maxX; chunkX++) {
+                        for (int chunkZ = minZ; chunkZ <= maxZ; chunkZ++) {
+                            List<Listener> listeners = index.chunks.get(WorldIndex.chunkKey(chunkX, chunkZ));
+                            if (listeners != null) index.play(listeners, entry, range);
+                        }
+                    }
+                }
+            }
+
+            entries.clear();
+        }
+
+        private static final class Entry {
+            private final Sound sound;
+            private final Location location;
+            private final float volume, pitch;
+
+            private Entry(Sound sound, Location location, float volume, float pitch) {
+                this.sound = sound;
+                this.location = location;
+                this.volume = volume;
+                this.pitch = pitch;
+            }
+        }
+
+        private static final class Listener {
+            private final Player player;
+            private final double x, y, z;
+
+            private Listener(Player player, Location location) {
+                this.player = player;
+                this.x = location.getX();
+                this.y = location.getY();
+                this.z = location.getZ();
+            }
+        }
+
+        /**
+         * The players of a world indexed by the chunk they're in.
+         * Only built once per world for each {@link #play()}
+         */
+        private static final class WorldIndex {
+            private final List<Listener> listeners;
+            private final Map<Long, List<Listener>> chunks = new HashMap<>();
+
+            private WorldIndex(World world) {
+                List<Player> players = world.getPlayers();
+                this.listeners = new ArrayList<>(players.size());
+
+                for (Player player : players) {
+                    Listener listener = new Listener(player, player.getLocation());
+                    listeners.add(listener);
+                    long key = chunkKey(NumberConversions.floor(listener.x) >> 4, NumberConversions.floor(listener.z) >> 4);
+                    chunks.computeIfAbsent(key, k -> new ArrayList<>(2)).add(listener);
+                }
+            }
+
+            private static long chunkKey(int x, int z) {
+                return ((long) x << 32) | (z & 0xFFFFFFFFL);
+            }
+
+            private void play(List<Listener> listeners, Entry entry, double range) {
+                Location location = entry.location;
+                double rangeSquared = range * range;
+
+                for (Listener listener : listeners) {
+                    double x = listener.x - location.getX(), y = listener.y - location.getY(), z = listener.z - location.getZ();
+                    if (x * x + y * y + z * z < rangeSquared)
+                        listener.player.playSound(location, entry.sound, entry.volume, entry.pitch);
+                }
+            }
+        }
+    }
+
+    /**
+     * A single shared task that plays all the repeated sounds and notes of a plugin.
+     * Each {@link #playRepeatedly(Plugin, Iterable, float, float, int, int)} and
+     * {@link #playAscendingNote(Plugin, Player, Entity, Instrument, int, int)} call schedules its own task,
+     * which fills the scheduler with many tiny tasks when there are hundreds of effects.
+     * The sequencer keeps them in a timing wheel instead and plays everything that's due in one task per tick.
+     * <p>
+     * Sounds can be scheduled from any thread, but they're always played on the main thread.
+     * The sequencer task only runs while there are sounds waiting to be played.
+     *
+     * @since 9.3.0
+     */
+    public static final class Sequencer {
+        /**
+         * The amount of slots in the timing wheel, must be a power of 2.
+         * Tasks with delays longer than this just stay in their slot for more rounds.
+         */
+        private static final int WHEEL_SIZE = 64, WHEEL_MASK = WHEEL_SIZE - 1;
+
+        @Nonnull
+        private final Plugin plugin;
+        private final List<List<Task>> wheel = new ArrayList<>(WHEEL_SIZE);
+        /**
+         * Tasks that were scheduled since the last tick. This is the only part that can be accessed from other threads.
+         */
+        private final Queue<Task> incoming = new ConcurrentLinkedQueue<>();
+        private BukkitTask ticker;
+        private long tick;
+        private int size;
+        private volatile int queueDepth, dispatched;
+
+        public Sequencer(@Nonnull Plugin plugin) {
+            this.plugin = Objects.requireNonNull(plugin, "Cannot create sound sequencer for null plugin");
+            for (int i = 0; i < WHEEL_SIZE; i++) wheel.add(new ArrayList<>());
+        }
+
+        /**
+         * Same as {@link XSound#playRepeatedly(Plugin, Iterable, float, float, int, int)} but uses this sequencer.
+         *
+         * @param sound    the sound to play.
+         * @param entities the entities to play the sound to. We exactly need the entities to keep the track of location changes.
+         * @param volume   the volume of the sound.
+         * @param pitch    the pitch of the sound.
+         * @param repeat   the amount of times to repeat playing.
+         * @param delay    the delay between each repeat.
+         * @return the scheduled task.
+         * @since 9.3.0
+         */
+        @Nonnull
+        public Task playRepeatedly(@Nonnull XSound sound, @Nonnull Iterable<? extends Entity> entities,
+                                   float volume, float pitch, int repeat, int delay) {
+            Objects.requireNonNull(sound, "Cannot play repeating null sound");
+            Objects.requireNonNull(entities, "Cannot play repeating sound at null locations");
+
+            if (repeat <= 0) throw new IllegalArgumentException("Cannot repeat playing sound " + repeat + " times");
+            if (delay <= 0) throw new IllegalArgumentException("Delay ticks must be at least 1");
+
+            // Same as the normal method, the sound is played once and then repeated.
+            return schedule(new Task(repeat + 1, delay) {
+                @Override
+                protected int play(int index) {
+                    int played = 0;
+                    for (Entity entity : entities) {
+                        sound.play(entity.getLocation(), volume, pitch);
+                        played++;
+                    }
+                    return played;
+                }
+            });
+        }
+
+        /**
+         * Same as {@link XSound#playAscendingNote(Plugin, Player, Entity, Instrument, int, int)} but uses this sequencer.
+         *
+         * @param player      the player to play the note from.
+         * @param playTo      the entity to play the note to.
+         * @param instrument  the instrument.
+         * @param ascendLevel the amount of notes to play starting from {@link Note.Tone#G} Can only be positive and not higher than 7
+         * @param delay       the delay between each play.
+         * @return the scheduled task.
+         * @since 9.3.0
+         */
+        @Nonnull
+        public Task playAscendingNote(@Nonnull Player player, @Nonnull Entity playTo, @Nonnull Instrument instrument, int ascendLevel, int delay) {
+            Objects.requireNonNull(player, "Cannot play note from null player");
+            Objects.requireNonNull(playTo, "Cannot play note to null entity");
+
+            if (ascendLevel <= 0) throw new IllegalArgumentException("Note ascend level cannot be lower than 1");
+            if (ascendLevel > 7) throw new IllegalArgumentException("Note ascend level cannot be greater than 7");
+            if (delay <= 0) throw new IllegalArgumentException("Delay ticks must be at least 1");
+
+            Note.Tone[] tones = Note.Tone.values();
+            return schedule(new Task(ascendLevel, delay) {
+                @Override
+                protected int play(int index) {
+                    player.playNote(playTo.getLocation(), instrument, Note.natural(1, tones[index]));
+                    return 1;
+                }
+            });
+        }
+
+        @Nonnull
+        private Task schedule(@Nonnull Task task) {
+            incoming.add(task);
+            start();
+            return task;
+        }
+
+        private synchronized void start() {
+            if (ticker != null) return;
+            ticker = new BukkitRunnable() {
+                @Override
+                public void run() {
+                    tick();
+                }
+            }.runTaskTimer(plugin, 1L, 1L);
+        }
+
+        private void tick() {
+            tick++;
+            for (Task task; (task = incoming.poll()) != null; ) {
+                task.due = tick;
+                wheel.get((int) (tick & WHEEL_MASK)).add(task);
+                size++;
+            }
+
+            List<Task> slot = wheel.get((int) (tick & WHEEL_MASK));
+            List<Task> rescheduled = null;
+            int played = 0;
+
+            // Iterating backwards, so due tasks can be swapped with the last element and removed.
+            for (int i = slot.size() - 1; i >= 0; i--) {
+                Task task = slot.get(i);
+                if (!task.cancelled) {
+                    if (task.due > tick) continue; // Still has more rounds to wait.
+                    try {
+                        played += task.play(task.played++);
+                    } catch (Throwable ex) {
+                        // Only this task is stopped, the other tasks in the wheel are still played.
+                        task.cancelled = true;
+                        plugin.getLogger().log(Level.SEVERE, "Failed to play scheduled sound, cancelling it", ex);
+                    }
+                }
+
+                Task last = slot.remove(slot.size() - 1);
+                if (i < slot.size()) slot.set(i, last);
+
+                if (task.cancelled || task.played >= task.plays) {
+                    task.cancelled = true;
+                    size--;
+                } else {
+                    task.due = tick + task.delay;
+                    if (rescheduled == null) rescheduled = new ArrayList<>();
+                    rescheduled.add(task);
+                }
+            }
+
+            if (rescheduled != null) {
+                for (Task task : rescheduled) wheel.get((int) (task.due & WHEEL_MASK)).add(task);
+            }
+
+            this.dispatched = played;
+            this.queueDepth = size;
+            if (size == 0) stopIfIdle();
+        }
+
+        private synchronized void stopIfIdle() {
+            // Anything scheduled after this point will start a new ticker.
+            if (size == 0 && incoming.isEmpty() && ticker != null) {
+                ticker.cancel();
+                ticker = null;
+            }
+        }
+
+        /**
+         * The amount of tasks that are waiting to be played as of the last tick.
+         *
+         * @return the queue depth.
+         * @since 9.3.0
+         */
+        public int getQueueDepth() {
+            return queueDepth;
+        }
+
+        /**
+         * The amount of sounds that were played in the last tick.
+         *
+         * @return the sounds dispatched in the last tick.
+         * @since 9.3.0
+         */
+        public int getDispatchedLastTick() {
+            return dispatched;
+        }
+
+        /**
+         * Cancels all the scheduled sounds and stops the sequencer task.
+         * This should be called when the plugin is disabled and only from the main thread.
+         *
+         * @since 9.3.0
+         */
+        public synchronized void shutdown() {
+            for (Task task; (task = incoming.poll()) != null; ) task.cancel();
+            for (List<Task> slot : wheel) {
+                for (Task task : slot) task.cancel();
+                slot.clear();
+            }
+            size = 0;
+            queueDepth = 0;
+            if (ticker != null) {
+                ticker.cancel();
+                ticker = null;
+            }
+        }
+
+        /**
+         * A repeating sound scheduled in a {@link Sequencer}
+         *
+         * @since 9.3.0
+         */
+        public abstract static class Task {
+            private final int plays, delay;
+            private int played;
+            private long due;
+            private volatile boolean cancelled;
+
+            private Task(int plays, int delay) {
+                this.plays = plays;
+                this.delay = delay;
+            }
+
+            /**
+             * Plays the sound for the given time.
+             *
+             * @param index the amount of times this task was played before.
+             * @return the amount of sounds played.
+             */
+            protected abstract int play(int index);
+
+            /**
+             * Stops playing this sound. The sound is removed from the sequencer in its next due tick.
+             * Tasks are also cancelled if they throw an exception while playing.
+             *
+             * @since 9.3.0
+             */
+            public void cancel() {
+                cancelled = true;
+            }
+
+            /**
+             * Checks if this task was cancelled or has finished playing.
+             *
+             * @return true if this sound will no longer be played.
+             * @since 9.3.0
+             */
+            public boolean isCancelled() {
+                return cancelled;
+            }
+        }
+    }
+
+    /**
+     * An optional layer for playing sounds to players that drops identical sounds sent to the same player
+     * in the same tick and limits the amount of sounds each player can receive per tick.
+     * Clients drop most of the sounds when too many are played at once anyway, so this saves bandwidth
+     * when multiple plugins play sounds at the same time.
+     * <p>
+     * This is lock-free and can be used from any thread. Players that can still receive sounds
+     * only need a map lookup and an atomic update for each sound they already received in the same tick.
+     * <p>
+     * <b>Example:</b>
+     * <blockquote><pre>
+     *     Limiter limiter = new Limiter(plugin, 8);
+     *     limiter.play(player, XSound.ENTITY_EXPERIENCE_ORB_PICKUP, player.getLocation(), 1, 1);
+     * </pre></blockquote>
+     *
+     * @since 9.3.0
+     */
+    public static final class Limiter {
+        /**
+         * Players that didn't receive any sounds within this amount of ticks are removed.
+         */
+        private static final int CLEANUP_TICKS = 20 * 60;
+
+        private final int maxSoundsPerTick;
+        private final Map<UUID, PlayerSounds> players = new ConcurrentHashMap<>();
+        private final BukkitTask ticker;
+        /**
+         * Starts at 1 so the empty slots of new players belong to an older tick.
+         */
+        private volatile int tick = 1;
+
+        /**
+         * @param plugin           the plugin used to keep track of ticks.
+         * @param maxSoundsPerTick the maximum amount of different sounds each player can receive per tick.
+         */
+        public Limiter(@Nonnull Plugin plugin, int maxSoundsPerTick) {
+            Objects.requireNonNull(plugin, "Cannot create sound limiter for null plugin");
+            if (maxSoundsPerTick <= 0) throw new IllegalArgumentException("Max sounds per tick must be at least 1");
+
+            this.maxSoundsPerTick = maxSoundsPerTick;
+            this.ticker = new BukkitRunnable() {
+                @Override
+                public void run() {
+                    int current = ++tick;
+                    if (current % CLEANUP_TICKS == 0)
+                        players.values().removeIf(sounds -> current - sounds.lastTick() > CLEANUP_TICKS);
+                }
+            }.runTaskTimer(plugin, 1L, 1L);
+        }
+
+        /**
+         * Plays a sound to the player if the same sound wasn't already played to them in this tick
+         * and they haven't received more than the max amount of sounds in this tick.
+         *
+         * @param player   the player to play the sound to.
+         * @param sound    the sound to play.
+         * @param location the location to play the sound at.
+         * @param volume   the volume of the sound, 1 is normal.
+         * @param pitch    the pitch of the sound, 0 is normal.
+         * @return true if the sound was played, otherwise false if it was merged, throttled or not supported.
+         * @since 9.3.0
+         */
+        public boolean play(@Nonnull Player player, @Nonnull XSound sound, @Nonnull Location location, float volume, float pitch) {
+            Objects.requireNonNull(player, "Cannot play sound to null player");
+            Objects.requireNonNull(sound, "Cannot play null sound");
+            Objects.requireNonNull(location, "Cannot play sound at null location");
+
+            Sound bukkitSound = sound.parseSound();
+            if (bukkitSound == null) return false;
+
+            PlayerSounds sounds = players.get(player.getUniqueId());
+            if (sounds == null) sounds = players.computeIfAbsent(player.getUniqueId(), k -> new PlayerSounds(maxSoundsPerTick));
+            if (!sounds.tryAcquire(tick, hash(sound, location, volume, pitch))) return false;
+
+            player.playSound(location, bukkitSound, volume, pitch);
+            return true;
+        }
+
+        /**
+         * Plays a sound record at the player's location.
+         *
+         * @param player the player to play the sound to.
+         * @param record the sound to play.
+         * @return true if the sound was played.
+         * @see #play(Player, XSound, Location, float, float)
+         * @since 9.3.0
+         */
+        public boolean play(@Nonnull Player player, @Nonnull Record record) {
+            Objects.requireNonNull(record, "Cannot play null sound record");
+            return play(player, record.sound, player.getLocation(), record.volume, record.pitch);
+        }
+
+        /**
+         * Stops tracking the ticks. This should be called when the plugin is disabled.
+         *
+         * @since 9.3.0
+         */
+        public void shutdown() {
+            ticker.cancel();
+            players.clear();
+        }
+
+        /**
+         * Sounds are identical if they're the same sound with the same volume and pitch
+         * at the same location, using the same precision as sound packets (1/8 of a block)
+         * Different sounds are only merged if their 32-bit hashes collide in the same tick.
+         */
+        private static int hash(XSound sound, Location location, float volume, float pitch) {
+            long hash = mix(sound.ordinal());
+            hash = mix(hash + Float.floatToIntBits(volume));
+            hash = mix(hash + Float.floatToIntBits(pitch));
+            hash = mix(hash + (long) Math.floor(location.getX() * 8));
+            hash = mix(hash + (long) Math.floor(location.getY() * 8));
+            hash = mix(hash + (long) Math.floor(location.getZ() * 8));
+            hash = mix(hash + Objects.hashCode(location.getWorld()));
+            return (int) (hash ^ (hash >>> 32));
+        }
+
+        /**
+         * The SplitMix64 finalizer, so every bit of the input affects every bit of the hash.
+         */
+        private static long mix(long value) {
+            value = (value ^ (value >>> 30)) * 0xBF58476D1CE4E5B9L;
+            value = (value ^ (value >>> 27)) * 0x94D049BB133111EBL;
+            return value ^ (value >>> 31);
+        }
+
+        private static final class PlayerSounds {
+            /**
+             * The sounds played to this player, each one with the tick it was played in the upper 32 bits
+             * and its hash in the lower 32 bits. The sounds of the current tick are always at the start,
+             * since each sound claims the first slot that belongs to an older tick.
+             */
+            private final AtomicLongArray slots;
+
+            private PlayerSounds(int maxSoundsPerTick) {
+                this.slots = new AtomicLongArray(maxSoundsPerTick);
+            }
+
+            /**
+             * @return the last tick a sound was played in. The first slot is always the first one to be claimed.
+             */
+            private int lastTick() {
+                return (int) (slots.get(0) >>> 32);
+            }
+
+            /**
+             * @return true if the sound can be played, otherwise false if it was already played
+             * in this tick or the player already received the maximum amount of sounds.
+             */
+            private boolean tryAcquire(int tick, int hash) {
+                long sound = ((long) tick << 32) | (hash & 0xFFFFFFFFL);
+                for (int i = 0; i < slots.length(); i++) {
+                    while (true) {
+                        long slot = slots.get(i);
+                        if (slot == sound) return false;
+                        // Either a different sound from this tick, or a newer tick if this one is late.
+                        if ((int) (slot >>> 32) - tick >= 0) break;
+                        if (slots.compareAndSet(i, slot, sound)) return true;
+                    }
+                }
+                return false;
+            }
+        }
+    }
 }
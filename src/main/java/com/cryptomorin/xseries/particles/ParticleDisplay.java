@@ -21,6 +21,8 @@
  */
 package com.cryptomorin.xseries.particles;
 
+import com.cryptomorin.xseries.ReflectionUtils;
+import org.bukkit.Bukkit;
 import org.bukkit.Location;
 import org.bukkit.Material;
 import org.bukkit.Particle;
@@ -36,9 +38,13 @@ import org.bukkit.util.Vector;
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 import java.awt.*;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 import java.util.List;
 import java.util.*;
 import java.util.concurrent.Callable;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Predicate;
 
 /**
@@ -58,7 +64,7 @@ import java.util.function.Predicate;
  * <code>[r, g, b, size]</code>
  *
  * @author Crypto Morin
- * @version 7.1.0
+ * @version 7.2.0
  * @see XParticle
  */
 public class ParticleDisplay implements Cloneable {
@@ -78,6 +84,18 @@ public class ParticleDisplay implements Cloneable {
     private static final boolean SUPPORTS_DUST_TRANSITION = XParticle.getParticle("DUST_COLOR_TRANSITION") != null;
     private static final Axis[] DEFAULT_ROTATION_ORDER = {Axis.X, Axis.Y, Axis.Z};
     private static final Particle DEFAULT_PARTICLE = Particle.CLOUD;
+    /**
+     * The location reused by {@link #spawnRelative(double, double, double)} for each thread.
+     *
+     * @since 7.2.0
+     */
+    private static final ThreadLocal<Location> RELATIVE_LOCATION = ThreadLocal.withInitial(() -> new Location(null, 0, 0, 0));
+    /**
+     * Locations only keep a weak reference to their world in 1.14+
+     * In older versions, the world of {@link #RELATIVE_LOCATION} is removed after each point,
+     * otherwise the location of every thread would keep its last world loaded in memory.
+     */
+    private static final boolean WEAK_LOCATION_WORLD = ReflectionUtils.supports(14);
 
     public int count = 1;
     public double extra;
@@ -96,6 +114,12 @@ public class ParticleDisplay implements Cloneable {
     private Object data;
     @Nullable
     private Predicate<Location> onSpawn;
+    /**
+     * The matrix of the last {@link #rotation} and {@link #rotationOrder} used.
+     * Since the rotation vector is mutable, it's compared with the current rotation before each use.
+     */
+    @Nullable
+    private RotationMatrix rotationMatrix;
 
     /**
      * Builds a simple ParticleDisplay object with cross-version
@@ -865,14 +889,44 @@ public class ParticleDisplay implements Cloneable {
     @Nonnull
     public Location rotate(@Nonnull Location location, double x, double y, double z) {
         if (location == null) throw new IllegalStateException("Attempting to spawn particle when no location is set");
-        if (rotation == null) return cloneLocation(location).add(x, y, z);
+        return rotate(location, x, y, z, cloneLocation(location));
+    }
+
+    /**
+     * Rotates the given xyz with the given rotation radians and
+     * adds them to the specified location, without cloning the location.
+     * This can be used to spawn many points with a single location object.
+     *
+     * @param location the location to add the rotated axis.
+     * @param result   the location to store the result in. This can be the same location.
+     * @return the result location.
+     * @see #rotate(Location, double, double, double)
+     * @since 7.2.0
+     */
+    @Nonnull
+    public Location rotate(@Nonnull Location location, double x, double y, double z, @Nonnull Location result) {
+        if (location == null) throw new IllegalStateException("Attempting to spawn particle when no location is set");
+
+        Vector rotation = this.rotation;
+        if (rotation != null) {
+            RotationMatrix matrix = this.rotationMatrix;
+            if (matrix == null || !matrix.matches(rotation, rotationOrder)) {
+                matrix = new RotationMatrix(rotation, rotationOrder);
+                this.rotationMatrix = matrix;
+            }
 
-        Vector rotate = new Vector(x, y, z);
-        rotateAround(rotate, rotationOrder[0], rotation);
-        rotateAround(rotate, rotationOrder[1], rotation);
-        rotateAround(rotate, rotationOrder[2], rotation);
+            double rotatedX = matrix.m00 * x + matrix.m01 * y + matrix.m02 * z;
+            double rotatedY = matrix.m10 * x + matrix.m11 * y + matrix.m12 * z;
+            double rotatedZ = matrix.m20 * x + matrix.m21 * y + matrix.m22 * z;
+            x = rotatedX;
+            y = rotatedY;
+            z = rotatedZ;
+        }
 
-        return cloneLocation(location).add(rotate);
+        result.setX(location.getX() + x);
+        result.setY(location.getY() + y);
+        result.setZ(location.getZ() + z);
+        return result;
     }
 
     /**
@@ -987,6 +1041,39 @@ public class ParticleDisplay implements Cloneable {
         return spawn(rotate(getLocation(), x, y, z));
     }
 
+    /**
+     * Same as {@link #spawn(double, double, double)} but reuses the same location for all the points
+     * spawned from the current thread, so {@link XParticle} shapes don't allocate a location for every point.
+     * The location passed to {@link #onSpawn(Predicate)} is only valid until the next point is spawned.
+     *
+     * @since 7.2.0
+     */
+    void spawnRelative(double x, double y, double z) {
+        Location location = getLocation();
+        if (location == null) throw new IllegalStateException("Attempting to spawn particle when no location is set");
+
+        Location point = RELATIVE_LOCATION.get();
+        World world = location.getWorld();
+        if (getWorld(point) != world) point.setWorld(world);
+        try {
+            spawn(rotate(location, x, y, z, point));
+        } finally {
+            if (!WEAK_LOCATION_WORLD) point.setWorld(null);
+        }
+    }
+
+    /**
+     * Newer versions throw an exception when getting the world of a location if the world was unloaded.
+     */
+    @Nullable
+    private static World getWorld(Location location) {
+        try {
+            return location.getWorld();
+        } catch (IllegalArgumentException unloaded) {
+            return null;
+        }
+    }
+
     /**
      * Displays the particle in the specified location.
      * This method does not support rotations if used directly.
@@ -1073,6 +1160,557 @@ public class ParticleDisplay implements Cloneable {
         return loc;
     }
 
+    /**
+     * Collects all the particles of a frame and sends them to players at once.
+     * The particle type, data, offset and speed are converted to a packet only once per batch,
+     * and the packets are sent directly to the players' connections, bundled together
+     * in a single packet on versions that support it (1.19.4+)
+     * <p>
+     * Packets are only supported in 1.13+, otherwise the particles are spawned for each player normally.
+     * The display settings are taken when the batch is sent, so they shouldn't be changed while points are added.
+     * <p>
+     * When broadcasting with {@link #send()}, the players that can see the batch are found once per frame
+     * from the bounding box of all the points, and each of them only receives the points within their range.
+     * With {@link #withLevelOfDetail(double) level of detail}, players that are farther away receive fewer points.
+     * Broadcasting reads the players of the world, so {@link #send()} can only be used on the main thread.
+     * Asynchronous tasks can still send batches to a known set of players with {@link #send(Collection)}
+     * <p>
+     * <b>Example:</b>
+     * <blockquote><pre>
+     *     ParticleDisplay.Batch batch = new ParticleDisplay.Batch(display);
+     *     for (...) batch.add(x, y, z);
+     *     batch.send();
+     * </pre></blockquote>
+     *
+     * @since 7.2.0
+     */
+    public static final class Batch {
+        /**
+         * Particles are visible to players within 32 blocks, or 512 blocks if they're forced.
+         */
+        private static final double RANGE = 32 * 32, FORCE_RANGE = 512 * 512;
+
+        private final ParticleDisplay display;
+        /**
+         * The xyz of each point after each other.
+         */
+        private double[] points = new double[48];
+        private int size;
+        private double minX, minY, minZ, maxX, maxY, maxZ;
+        /**
+         * The maximum distance of points from players that receive them in {@link #send()}, or 0 for the particle range.
+         */
+        private double viewDistance;
+        /**
+         * The distance from the points after which players receive fewer points in {@link #send()}, or 0 to always send all of them.
+         */
+        private double levelOfDetail;
+        @Nullable
+        private World world;
+        /**
+         * The location of the display for relative points in this frame and a reusable location for the points.
+         */
+        @Nullable
+        private Location origin, point;
+
+        public Batch(@Nonnull ParticleDisplay display) {
+            this.display = Objects.requireNonNull(display, "Cannot create particle batch for null display");
+        }
+
+        /**
+         * Adds a point relative to the location of the display, same as {@link #spawn(double, double, double)}
+         * The location of the display is only taken once for the whole frame.
+         *
+         * @return the same batch.
+         * @since 7.2.0
+         */
+        @Nonnull
+        public Batch add(double x, double y, double z) {
+            if (origin == null) {
+                origin = display.getLocation();
+                if (origin == null) throw new IllegalStateException("Attempting to spawn particle when no location is set");
+            }
+            if (point == null) point = cloneLocation(origin);
+            return add(display.rotate(origin, x, y, z, point));
+        }
+
+        /**
+         * Adds a point at the given location, same as {@link #spawn(Location)}
+         * All the points of a batch must be in the same world.
+         *
+         * @return the same batch.
+         * @throws IllegalArgumentException if the location has no world or is in a different world than the other points.
+         * @since 7.2.0
+         */
+        @Nonnull
+        public Batch add(@Nonnull Location location) {
+            Objects.requireNonNull(location, "Cannot add particle at null location");
+            World pointWorld = location.getWorld();
+            if (pointWorld == null) throw new IllegalArgumentException("Cannot add particle at location with no world: " + location);
+            if (display.onSpawn != null && !display.onSpawn.test(location)) return this;
+            if (world == null) world = pointWorld;
+            else if (world != pointWorld)
+                throw new IllegalArgumentException("Cannot add particle in world " + pointWorld.getName() + " to batch in world " + world.getName());
+
+            double x = location.getX(), y = location.getY(), z = location.getZ();
+            if (size == 0) {
+                minX = maxX = x;
+                minY = maxY = y;
+                minZ = maxZ = z;
+            } else {
+                minX = Math.min(minX, x);
+                minY = Math.min(minY, y);
+                minZ = Math.min(minZ, z);
+                maxX = Math.max(maxX, x);
+                maxY = Math.max(maxY, y);
+                maxZ = Math.max(maxZ, z);
+            }
+
+            if (size == points.length) points = Arrays.copyOf(points, size << 1);
+            points[size++] = x;
+            points[size++] = y;
+            points[size++] = z;
+            return this;
+        }
+
+        /**
+         * Points farther than this distance from a player are not sent to them when broadcasting.
+         * This can be used to reduce the particles sent for large effects that only need to be seen nearby.
+         * The distance can't be higher than the particle range (32 blocks or 512 blocks if forced)
+         *
+         * @param viewDistance the distance in blocks, or 0 to use the particle range.
+         * @return the same batch.
+         * @since 7.2.0
+         */
+        @Nonnull
+        public Batch withViewDistance(double viewDistance) {
+            this.viewDistance = viewDistance;
+            return this;
+        }
+
+        /**
+         * Reduces the amount of points sent to players based on their distance from the closest point when broadcasting.
+         * Players within this distance receive all the points, players within twice this distance receive half of the points,
+         * three times this distance a third of the points and so on.
+         * <p>
+         * Points are skipped in the order they were added, so this works best for shapes that
+         * add their points in order such as {@link XParticle.Shape}
+         *
+         * @param distance the full detail distance in blocks, or 0 to send all the points to everyone.
+         * @return the same batch.
+         * @since 7.2.0
+         */
+        @Nonnull
+        public Batch withLevelOfDetail(double distance) {
+            this.levelOfDetail = distance;
+            return this;
+        }
+
+        /**
+         * @return the amount of points in this batch.
+         * @since 7.2.0
+         */
+        public int size() {
+            return size / 3;
+        }
+
+        /**
+         * Removes all the points, so this batch can be used for the next frame.
+         *
+         * @since 7.2.0
+         */
+        public void clear() {
+            size = 0;
+            world = null;
+            origin = null;
+            point = null;
+        }
+
+        /**
+         * Sends all the points to the players in the world that are within the particle range
+         * or the {@link #withViewDistance(double) view distance}, then clears this batch.
+         * <p>
+         * Players that are too far from all the points are skipped without checking each point,
+         * and players that are close enough to all the points receive them without checking each point.
+         * <p>
+         * This method can only be used on the main thread.
+         *
+         * @throws IllegalStateException if this is not called on the main thread.
+         * @since 7.2.0
+         */
+        public void send() {
+            if (!Bukkit.isPrimaryThread())
+                throw new IllegalStateException("Particle batches can only be broadcasted on the main thread");
+            if (size == 0) return;
+            double range = display.force ? FORCE_RANGE : RANGE;
+            if (viewDistance > 0) range = Math.min(range, viewDistance * viewDistance);
+
+            List<Player> viewers = PlayerIndex.of(world).getPlayers(minX, minZ, maxX, maxZ, Math.sqrt(range));
+            if (viewers.isEmpty()) {
+                clear();
+                return;
+            }
+
+            Template template = new Template(display);
+            Object[] packets = createPackets(template);
+            // The bundled packets of each level of detail step.
+            Map<Integer, Object[]> bundles = null;
+            int[] visible = new int[size / 3];
+
+            for (Player player : viewers) {
+                // The index can be up to a tick old.
+                if (!player.isOnline()) continue;
+                Location location = player.getLocation();
+                double playerX = location.getX(), playerY = location.getY(), playerZ = location.getZ();
+
+                // The closest and farthest distance from the bounding box of the points.
+                double nearX = Math.max(0, Math.max(minX - playerX, playerX - maxX)),
+                        nearY = Math.max(0, Math.max(minY - playerY, playerY - maxY)),
+                        nearZ = Math.max(0, Math.max(minZ - playerZ, playerZ - maxZ));
+                double near = nearX * nearX + nearY * nearY + nearZ * nearZ;
+                if (near > range) continue;
+                // Only every nth point is sent.
+                int step = levelOfDetail > 0 ? 1 + (int) (Math.sqrt(near) / levelOfDetail) : 1;
+
+                double farX = Math.max(Math.abs(minX - playerX), Math.abs(maxX - playerX)),
+                        farY = Math.max(Math.abs(minY - playerY), Math.abs(maxY - playerY)),
+                        farZ = Math.max(Math.abs(minZ - playerZ), Math.abs(maxZ - playerZ));
+                if (packets != null && farX * farX + farY * farY + farZ * farZ <= range) {
+                    if (bundles == null) bundles = new HashMap<>(4);
+                    Object[] bundled = bundles.get(step);
+                    if (bundled == null) {
+                        int count = 0;
+                        for (int i = 0; i < packets.length; i += step) visible[count++] = i * 3;
+                        bundled = toPackets(packets, visible, count);
+                        bundles.put(step, bundled);
+                    }
+                    ReflectionUtils.sendPacketSync(player, bundled);
+                    continue;
+                }
+
+                int count = 0;
+                for (int i = 0; i < size; i += 3 * step) {
+                    double x = points[i] - playerX, y = points[i + 1] - playerY, z = points[i + 2] - playerZ;
+                    if (x * x + y * y + z * z <= range) visible[count++] = i;
+                }
+                if (count != 0) send(player, template, packets, visible, count);
+            }
+            clear();
+        }
+
+        /**
+         * Sends all the points to the given players regardless of their distance, then clears this batch.
+         *
+         * @param players the players to send the particles to.
+         * @since 7.2.0
+         */
+        public void send(@Nonnull Collection<? extends Player> players) {
+            Objects.requireNonNull(players, "Cannot send particles to null players");
+            if (size == 0) return;
+            Template template = new Template(display);
+            Object[] packets = createPackets(template);
+
+            if (packets != null) {
+                Object[] bundled = Packets.bundle(packets, packets.length);
+                for (Player player : players) ReflectionUtils.sendPacketSync(player, bundled);
+            } else {
+                int[] all = new int[size / 3];
+                for (int i = 0; i < all.length; i++) all[i] = i * 3;
+                for (Player player : players) send(player, template, null, all, all.length);
+            }
+            clear();
+        }
+
+        /**
+         * @param indexes the index of the x of each point to send.
+         */
+        private void send(Player player, Template template, @Nullable Object[] packets, int[] indexes, int count) {
+            if (packets != null) {
+                ReflectionUtils.sendPacketSync(player, toPackets(packets, indexes, count));
+                return;
+            }
+
+            Location location = new Location(world, 0, 0, 0);
+            for (int i = 0; i < count; i++) {
+                int index = indexes[i];
+                location.setX(points[index]);
+                location.setY(points[index + 1]);
+                location.setZ(points[index + 2]);
+                player.spawnParticle(display.particle, location, display.count,
+                        template.offsetX, template.offsetY, template.offsetZ, template.extra, template.data);
+            }
+        }
+
+        private static Object[] toPackets(Object[] packets, int[] indexes, int count) {
+            if (count == packets.length) return Packets.bundle(packets, count);
+            Object[] visible = new Object[count];
+            for (int i = 0; i < count; i++) visible[i] = packets[indexes[i] / 3];
+            return Packets.bundle(visible, count);
+        }
+
+        /**
+         * @return a packet for each point, or null if packets are not supported.
+         */
+        @Nullable
+        private Object[] createPackets(Template template) {
+            if (Packets.PARTICLE_PACKET == null) return null;
+            try {
+                Object particle = Packets.TO_NMS.invoke(display.particle, template.data);
+                float offsetX = (float) template.offsetX, offsetY = (float) template.offsetY,
+                        offsetZ = (float) template.offsetZ, extra = (float) template.extra;
+
+                Object[] packets = new Object[size / 3];
+                for (int i = 0; i < size; i += 3) {
+                    packets[i / 3] = Packets.PARTICLE_PACKET.invoke(particle, display.force,
+                            points[i], points[i + 1], points[i + 2], offsetX, offsetY, offsetZ, extra, display.count);
+                }
+                return packets;
+            } catch (Throwable ex) {
+                throw new IllegalStateException("Failed to create particle packets for " + display, ex);
+            }
+        }
+    }
+
+    /**
+     * The players of a world grouped by the chunk they're in, so batches only need to check the players
+     * in the chunks around their points. The index is shared between all the batches of a world
+     * and rebuilt if it's older than a tick, so players that left since then must be skipped.
+     * It must only be used on the main thread.
+     * <p>
+     * Only the indexes of the current tick are kept. They're dropped by the first broadcast of the next tick,
+     * so players and unloaded worlds aren't kept in memory by old indexes.
+     *
+     * @since 7.2.0
+     */
+    private static final class PlayerIndex {
+        private static final long MAX_AGE = TimeUnit.MILLISECONDS.toNanos(50);
+        /**
+         * The indexes of the current tick by the UID of their world.
+         */
+        private static final Map<UUID, PlayerIndex> INDEXES = new HashMap<>();
+        private static long indexedAt = System.nanoTime();
+
+        private final List<Player> players;
+        private final Map<Long, List<Player>> chunks = new HashMap<>();
+
+        private PlayerIndex(List<Player> players) {
+            this.players = players;
+            for (Player player : players) {
+                Location location = player.getLocation();
+                chunks.computeIfAbsent(chunkKey(location.getBlockX() >> 4, location.getBlockZ() >> 4),
+                        k -> new ArrayList<>(4)).add(player);
+            }
+        }
+
+        @Nonnull
+        static PlayerIndex of(@Nonnull World world) {
+            long now = System.nanoTime();
+            if (now - indexedAt > MAX_AGE) {
+                INDEXES.clear();
+                indexedAt = now;
+            }
+            return INDEXES.computeIfAbsent(world.getUID(), k -> new PlayerIndex(world.getPlayers()));
+        }
+
+        private static long chunkKey(int x, int z) {
+            return ((long) x << 32) | (z & 0xFFFFFFFFL);
+        }
+
+        /**
+         * Gets the players that might be within the range of the area. The exact distance should still be checked.
+         * One extra chunk is checked on each side for players that moved since the index was built.
+         */
+        @Nonnull
+        List<Player> getPlayers(double minX, double minZ, double maxX, double maxZ, double range) {
+            int minChunkX = ((int) Math.floor(minX - range) >> 4) - 1, minChunkZ = ((int) Math.floor(minZ - range) >> 4) - 1;
+            int maxChunkX = ((int) Math.floor(maxX + range) >> 4) + 1, maxChunkZ = ((int) Math.floor(maxZ + range) >> 4) + 1;
+
+            // Forced particles can cover thousands of chunks.
+            long area = (long) (maxChunkX - minChunkX + 1) * (maxChunkZ - minChunkZ + 1);
+            if (area > chunks.size()) return players;
+
+            List<Player> found = new ArrayList<>();
+            for (int x = minChunkX; x <= maxChunkX; x++) {
+                for (int z = minChunkZ; z <= maxChunkZ; z++) {
+                    List<Player> chunk = chunks.get(chunkKey(x, z));
+                    if (chunk != null) found.addAll(chunk);
+                }
+            }
+            return found;
+        }
+    }
+
+    /**
+     * The values of the display that are sent to clients after the same data-type dispatch
+     * used in {@link #spawn(Location, Player...)}
+     *
+     * @since 7.2.0
+     */
+    private static final class Template {
+        private double offsetX, offsetY, offsetZ, extra;
+        @Nullable
+        private Object data;
+
+        Template(ParticleDisplay display) {
+            Particle particle = display.particle;
+            offsetX = display.offset.getX();
+            offsetY = display.offset.getY();
+            offsetZ = display.offset.getZ();
+            extra = display.extra;
+
+            if (display.data instanceof float[]) {
+                float[] datas = (float[]) display.data;
+                if (ISFLAT && particle.getDataType() == Particle.DustOptions.class) {
+                    data = new Particle.DustOptions(org.bukkit.Color
+                            .fromRGB((int) datas[0], (int) datas[1], (int) datas[2]), datas[3]);
+                } else if (SUPPORTS_DUST_TRANSITION && particle.getDataType() == Particle.DustTransition.class) {
+                    data = new Particle.DustTransition(
+                            org.bukkit.Color.fromRGB((int) datas[0], (int) datas[1], (int) datas[2]),
+                            org.bukkit.Color.fromRGB((int) datas[4], (int) datas[5], (int) datas[6]),
+                            datas[3]);
+                } else if (display.isDirectional()) {
+                    offsetX = datas[0] / 255f;
+                    offsetY = datas[1] / 255f;
+                    offsetZ = datas[2] / 255f;
+                    extra = datas[3];
+                }
+            } else if (particle.getDataType().isInstance(display.data)) {
+                data = display.data;
+            }
+        }
+    }
+
+    /**
+     * Handles for creating particle packets. Only loaded when {@link Batch} is used.
+     *
+     * @since 7.2.0
+     */
+    private static final class Packets {
+        /**
+         * The maximum amount of packets the client accepts in a single bundle.
+         */
+        private static final int BUNDLE_LIMIT = 4096;
+        /**
+         * {@code (Particle, Object data) -> ParticleParam}
+         */
+        private static final MethodHandle TO_NMS;
+        /**
+         * {@code (ParticleParam, boolean force, double x, double y, double z, float offsetX, float offsetY, float offsetZ, float speed, int count)}
+         */
+        @Nullable
+        private static final MethodHandle PARTICLE_PACKET;
+        /**
+         * {@code (Iterable<Packet>) -> ClientboundBundlePacket}
+         */
+        @Nullable
+        private static final MethodHandle BUNDLE_PACKET;
+
+        static {
+            MethodHandles.Lookup lookup = MethodHandles.lookup();
+            MethodHandle toNMS = null, particlePacket = null, bundlePacket = null;
+
+            if (ISFLAT) {
+                try {
+                    Class<?> particleParam = ReflectionUtils.getNMSClass("core.particles", "ParticleParam");
+                    Class<?> packet = ReflectionUtils.getNMSClass("network.protocol.game", "PacketPlayOutWorldParticles");
+                    toNMS = lookup.findStatic(ReflectionUtils.getCraftClass("CraftParticle"), "toNMS",
+                            MethodType.methodType(particleParam, Particle.class, Object.class));
+
+                    // Coordinates were floats before 1.15
+                    Class<?> coordinate = ReflectionUtils.supports(15) ? double.class : float.class;
+                    particlePacket = lookup.findConstructor(packet, MethodType.methodType(void.class, particleParam, boolean.class,
+                            coordinate, coordinate, coordinate, float.class, float.class, float.class, float.class, int.class));
+                    particlePacket = MethodHandles.explicitCastArguments(particlePacket, MethodType.methodType(Object.class, Object.class,
+                            boolean.class, double.class, double.class, double.class, float.class, float.class, float.class, float.class, int.class));
+                } catch (Throwable ex) {
+                    ex.printStackTrace();
+                    toNMS = null;
+                    particlePacket = null;
+                }
+            }
+
+            if (particlePacket != null && ReflectionUtils.supports(19)) {
+                try {
+                    // Only available in 1.19.4+ and it doesn't have a Spigot mapped name.
+                    Class<?> bundle = Class.forName(ReflectionUtils.NMS_PACKAGE + "network.protocol.game.ClientboundBundlePacket");
+                    bundlePacket = lookup.findConstructor(bundle, MethodType.methodType(void.class, Iterable.class))
+                            .asType(MethodType.methodType(Object.class, Iterable.class));
+                } catch (ClassNotFoundException | NoSuchMethodException | IllegalAccessException ignored) {
+                }
+            }
+
+            TO_NMS = toNMS;
+            PARTICLE_PACKET = particlePacket;
+            BUNDLE_PACKET = bundlePacket;
+        }
+
+        /**
+         * Groups the packets into bundles if supported, so the client processes all the particles of a frame at once.
+         *
+         * @return the packets to send.
+         */
+        static Object[] bundle(Object[] packets, int count) {
+            if (BUNDLE_PACKET == null || count == 1) return count == packets.length ? packets : Arrays.copyOf(packets, count);
+
+            Object[] bundles = new Object[(count + BUNDLE_LIMIT - 1) / BUNDLE_LIMIT];
+            try {
+                for (int i = 0; i < bundles.length; i++) {
+                    int from = i * BUNDLE_LIMIT;
+                    bundles[i] = BUNDLE_PACKET.invoke((Iterable<?>) Arrays.asList(packets).subList(from, Math.min(count, from + BUNDLE_LIMIT)));
+                }
+            } catch (Throwable ex) {
+                throw new IllegalStateException("Failed to bundle particle packets", ex);
+            }
+            return bundles;
+        }
+    }
+
+    /**
+     * All the rotations of {@link #rotationOrder} combined into a single matrix, so rotating a point
+     * doesn't need to calculate the sin and cos of the same angles for every point.
+     * This is immutable, so it's safe to share between threads.
+     *
+     * @since 7.2.0
+     */
+    private static final class RotationMatrix {
+        private final double x, y, z;
+        private final Axis[] order;
+        private final double m00, m01, m02, m10, m11, m12, m20, m21, m22;
+
+        RotationMatrix(@Nonnull Vector rotation, @Nonnull Axis[] order) {
+            this.x = rotation.getX();
+            this.y = rotation.getY();
+            this.z = rotation.getZ();
+            this.order = order;
+
+            // The columns of the matrix are the unit vectors rotated the same way as the points.
+            Vector column0 = rotateAll(new Vector(1, 0, 0), rotation, order);
+            Vector column1 = rotateAll(new Vector(0, 1, 0), rotation, order);
+            Vector column2 = rotateAll(new Vector(0, 0, 1), rotation, order);
+
+            m00 = column0.getX();
+            m10 = column0.getY();
+            m20 = column0.getZ();
+            m01 = column1.getX();
+            m11 = column1.getY();
+            m21 = column1.getZ();
+            m02 = column2.getX();
+            m12 = column2.getY();
+            m22 = column2.getZ();
+        }
+
+        private static Vector rotateAll(Vector vector, Vector rotation, Axis[] order) {
+            rotateAround(vector, order[0], rotation);
+            rotateAround(vector, order[1], rotation);
+            rotateAround(vector, order[2], rotation);
+            return vector;
+        }
+
+        boolean matches(@Nonnull Vector rotation, @Nonnull Axis[] order) {
+            return this.order == order && x == rotation.getX() && y == rotation.getY() && z == rotation.getZ();
+        }
+    }
+
     /**
      * As an alternative to {@link org.bukkit.Axis} because it doesn't exist in 1.12
      *
@@ -22,6 +22,8 @@
 package com.cryptomorin.xseries.particles;
 
 import com.google.common.base.Enums;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import org.bukkit.Color;
 import org.bukkit.*;
 import org.bukkit.block.BlockFace;
@@ -42,13 +44,16 @@ import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.StandardOpenOption;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.Callable;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
 import java.util.function.BooleanSupplier;
+import java.util.function.Supplier;
 
 /**
  * <b>XParticle</b> - The most unique particle animation, text and image renderer.<br>
@@ -102,7 +107,7 @@ import java.util.function.BooleanSupplier;
  * Particles: https://minecraft.gamepedia.com/Particles<br>
  *
  * @author Crypto Morin
- * @version 5.0.1
+ * @version 5.1.0
  * @see ParticleDisplay
  * @see Particle
  * @see Location
@@ -301,7 +306,7 @@ public final class XParticle {
                 display.offset(directionX, display.getOffset().getY(), directionZ);
             }
 
-            display.spawn(x, 0, z);
+            display.spawnRelative(x, 0, z);
         }
     }
 
@@ -323,7 +328,7 @@ public final class XParticle {
 
             // Now we can make an arrow or a right triangle if let x be equal to 0
             // But we want both sides to have particle.
-            for (double x = -count; x < count; x += rate) display.spawn(x, y, 0);
+            for (double x = -count; x < count; x += rate) display.spawnRelative(x, y, 0);
         }
     }
 
@@ -355,7 +360,7 @@ public final class XParticle {
                 for (double theta = 0; theta < PII; theta += rateDiv) {
                     double x = radius * Math.sin(theta);
                     double z = radius * Math.cos(theta);
-                    display.spawn(x, 0, z);
+                    display.spawnRelative(x, 0, z);
                 }
 
                 dynamicRadius += radiusDiv;
@@ -410,6 +415,7 @@ public final class XParticle {
      * @param rate       the rate of the circle points.
      * @param radiusRate the radius change of the circle to fill it.
      * @see #circle(double, double, ParticleDisplay)
+     * @see Shape#filledCircle(double, double, double)
      * @since 4.0.0
      */
     public static void filledCircle(double radius, double rate, double radiusRate, ParticleDisplay display) {
@@ -500,7 +506,7 @@ public final class XParticle {
                     double x2 = x + radius * Math.sin(theta2);
                     double y2 = y + radius * Math.cos(theta2);
 
-                    display.spawn(x2, y2, 0);
+                    display.spawnRelative(x2, y2, 0);
 
 //                locs.forEach((v, v2) -> {
 //                    ParticleDisplay dis = display.clone();
@@ -571,7 +577,7 @@ public final class XParticle {
                 for (double theta = 0; theta < PII; theta += rateDiv) {
                     double x = dynamicRadius * Math.sin(theta);
                     double z = dynamicRadius * Math.cos(theta);
-                    display.spawn(x, 0, z);
+                    display.spawnRelative(x, 0, z);
                 }
 
                 // We're going to use normal numbers since the circle radius will be always changing
@@ -628,6 +634,7 @@ public final class XParticle {
      * @param radius     the radius of the cone circle.
      * @param rate       the rate of the cone circles.
      * @param circleRate the rate of the cone circle points.
+     * @see Shape#cone(double, double, double, double)
      * @since 1.0.0
      */
     public static void cone(double height, double radius, double rate, double circleRate, ParticleDisplay display) {
@@ -655,7 +662,7 @@ public final class XParticle {
         for (double theta = start; theta <= end; theta += rate) {
             double x = radius * Math.cos(theta);
             double y = otherRadius * Math.sin(theta);
-            display.spawn(x, y, 0);
+            display.spawnRelative(x, y, 0);
         }
     }
 
@@ -696,7 +703,7 @@ public final class XParticle {
                     double zDirection = -Math.sin(phi);
 
                     display.offset(xDirection, 0, zDirection);
-                    display.spawn(x, 0, z);
+                    display.spawnRelative(x, 0, z);
 
                     // The modes are done by random math methods that are
                     // just randomly tested to give a different shape.
@@ -713,7 +720,7 @@ public final class XParticle {
                         zDirection = -Math.sin(phi);
 
                         display.offset(xDirection, 0, zDirection);
-                        display.spawn(x, 0, z);
+                        display.spawnRelative(x, 0, z);
                     }
                 }
 
@@ -787,7 +794,7 @@ public final class XParticle {
                 for (double theta = 0; theta <= Math.PI; theta += rateDiv) {
                     double x = radius * Math.cos(theta);
                     double y = secondRadius * Math.sin(theta);
-                    display.spawn(x, y, 0);
+                    display.spawnRelative(x, y, 0);
                 }
 
                 radius += compact;
@@ -813,11 +820,11 @@ public final class XParticle {
             // Our circle at the bottom.
             double x = Math.cos(theta);
             double z = Math.sin(theta);
-            display.spawn(radius * x, 0, radius * z);
+            display.spawnRelative(radius * x, 0, radius * z);
 
             // Slightly move the smaller circle to connect the openings.
             double smallerRadius = radius / 1.3;
-            display.spawn(smallerRadius * x + 0.8, 0, smallerRadius * z);
+            display.spawnRelative(smallerRadius * x + 0.8, 0, smallerRadius * z);
         }
     }
 
@@ -858,7 +865,7 @@ public final class XParticle {
                 double yy = height * y1 * y2;
                 double zz = extend * z;
 
-                display.spawn(xx, yy, zz);
+                display.spawnRelative(xx, yy, zz);
             }
         }
     }
@@ -896,7 +903,7 @@ public final class XParticle {
                     double zDirection = Math.sin(angle);
 
                     display.offset(xDirection, 0, zDirection);
-                    display.spawn(x, 0, z);
+                    display.spawnRelative(x, 0, z);
                 }
             }
         };
@@ -926,6 +933,7 @@ public final class XParticle {
      * @param height the height of the cylinder.
      * @param radius the radius of the cylinder circles.
      * @param rate   the rate of cylinder points.
+     * @see Shape#cylinder(double, double, double)
      * @since 1.0.0
      */
     public static void cylinder(double height, double radius, double rate, ParticleDisplay display) {
@@ -1199,6 +1207,7 @@ public final class XParticle {
      * @param radius the circle radius.
      * @param rate   the rate of cirlce points/particles.
      * @see #circle(double, double, ParticleDisplay)
+     * @see Shape#sphere(double, double)
      * @since 1.0.0
      */
     public static void sphere(double radius, double rate, ParticleDisplay display) {
@@ -1228,7 +1237,7 @@ public final class XParticle {
                     display.offset(directionX, directionY, directionZ);
                 }
 
-                display.spawn(x, y1, z);
+                display.spawnRelative(x, y1, z);
             }
         }
     }
@@ -1278,6 +1287,7 @@ public final class XParticle {
      * @param radius     the radius of the ring.
      * @param tubeRadius the radius of the circles used to form the ring (tunnel circles)
      * @see #circle(double, double, ParticleDisplay)
+     * @see Shape#ring(double, double, double)
      * @since 1.0.0
      */
     public static void ring(double rate, double radius, double tubeRadius, ParticleDisplay display) {
@@ -1295,7 +1305,7 @@ public final class XParticle {
                 double y = finalRadius * sin;
                 double z = tubeRadius * Math.sin(phi);
 
-                display.spawn(x, y, z);
+                display.spawnRelative(x, y, z);
             }
         }
     }
@@ -1386,7 +1396,7 @@ public final class XParticle {
             double y = omega * (sin + cos);
             double z = omega * (cos - sin);
 
-            display.spawn(0, y, z);
+            display.spawnRelative(0, y, z);
         }
     }
 
@@ -1415,7 +1425,7 @@ public final class XParticle {
 
                 for (double angle = 0; orbital > 0; angle += dist) {
                     orbit.setRotation(new Vector(0, 0, angle));
-                    orbit.spawn(x, 0, z);
+                    orbit.spawnRelative(x, 0, z);
                     orbital--;
                 }
             }
@@ -1490,7 +1500,7 @@ public final class XParticle {
                     int tempString = strings;
                     for (double angle = 0; tempString > 0; angle += dist) {
                         display.rotate(0, angle, 0);
-                        display.spawn(x, y, z);
+                        display.spawnRelative(x, y, z);
                         display.rotate(0, -angle, 0);
                         tempString--;
                     }
@@ -1625,9 +1635,9 @@ public final class XParticle {
             // The two nucleotides on each DNA string.
             // Should be exactly facing each other with the same Y pos.
             Location nucleotide1 = display.getLocation().clone().add(x, y, z);
-            display.spawn(x, y, z);
+            display.spawnRelative(x, y, z);
             Location nucleotide2 = display.getLocation().clone().subtract(x, -y, z);
-            display.spawn(-x, y, -z);
+            display.spawnRelative(-x, y, -z);
 
             // If it's the appropriate distance for two nucleotides to form a hydrogen bond.
             // We don't care about the type of nucleotide. It's going to be one bond only.
@@ -1815,7 +1825,7 @@ public final class XParticle {
             // Since the rate can be any number it's possible to get a higher number than
             // the length in the last loop.
             if (i > length) i = length;
-            clone.spawn(x * i, y * i, z * i);
+            clone.spawnRelative(x * i, y * i, z * i);
         }
     }
 
@@ -1840,7 +1850,7 @@ public final class XParticle {
         // A simple 2D Shape
         for (double x = minX; x <= maxX; x += rate) {
             for (double y = minY; y <= maxY; y += rate) {
-                display.spawn(x - minX, y - minY, 0);
+                display.spawnRelative(x - minX, y - minY, 0);
             }
         }
     }
@@ -1918,7 +1928,7 @@ public final class XParticle {
         for (double x = minX; x <= maxX; x += rate) {
             for (double y = minY; y <= maxY; y += rate) {
                 for (double z = minZ; z <= maxZ; z += rate) {
-                    display.spawn(x - minX, y - minY, z - minZ);
+                    display.spawnRelative(x - minX, y - minY, z - minZ);
                 }
             }
         }
@@ -1953,7 +1963,7 @@ public final class XParticle {
                     // So we don't fill the cube itself.
                     // Another way is to use 6 loops, one 2 axis loop for each side.
                     if ((y == minY || y + rate > maxY) || (x == minX || x + rate > maxX) || (z == minZ || z + rate > maxZ)) {
-                        display.spawn(x - minX, y - minY, z - minZ);
+                        display.spawnRelative(x - minX, y - minY, z - minZ);
                     }
                 }
             }
@@ -1992,7 +2002,7 @@ public final class XParticle {
                     if (x == minX || x + rate > maxX) components++;
                     if (y == minY || y + rate > maxY) components++;
                     if (z == minZ || z + rate > maxZ) components++;
-                    if (components >= 2) display.spawn(x - minX, y - minY, z - minZ);
+                    if (components >= 2) display.spawnRelative(x - minX, y - minY, z - minZ);
                 }
             }
         }
@@ -2067,7 +2077,7 @@ public final class XParticle {
                         if (x == minX || x + rate > maxX) components++;
                         if (y == minY || y + rate > maxY) components++;
                         if (z == minZ || z + rate > maxZ) components++;
-                        if (components >= 2) display.spawn(x - minX, y - minY, z - minZ);
+                        if (components >= 2) display.spawnRelative(x - minX, y - minY, z - minZ);
                     }
                 }
             }
@@ -2190,7 +2200,7 @@ public final class XParticle {
                     for (int proj = 0; proj < projected.length; proj++) projected[proj] *= size;
                     projected3D[i] = projected;
 
-                    display.spawn(projected[0], projected[1], projected[2]);
+                    display.spawnRelative(projected[0], projected[1], projected[2]);
                 }
 
                 for (int[] connection : connections) {
@@ -2308,7 +2318,7 @@ public final class XParticle {
 
                 if (iteration != 0) continue;
                 //Color color = new Color(iteration | (iteration << 8));
-                display.spawn(x, y, 0);
+                display.spawnRelative(x, y, 0);
             }
         }
     }
@@ -2345,7 +2355,7 @@ public final class XParticle {
                 java.awt.Color color = new java.awt.Color((i << 21) + (i << 10) + i * 8);
 
                 display.withColor(color, 0.8f)
-                        .spawn(x, y, 0);
+                        .spawnRelative(x, y, 0);
             }
         }
     }
@@ -2408,7 +2418,7 @@ public final class XParticle {
                         for (int j = 0; j < points; j++) {
                             // Rotate the spikes to copy them with equal angles.
                             ParticleDisplay.rotateAround(vector, ParticleDisplay.Axis.Y, pointsRate);
-                            display.spawn(vector);
+                            display.spawnRelative(vector.getX(), vector.getY(), vector.getZ());
                         }
                     }
 
@@ -2474,8 +2484,8 @@ public final class XParticle {
         for (double i = 0; i < limit; i += rateDiv) {
             double y = radius * Math.sin(extension * i);
             double y2 = radius2 * Math.sin(extension * -i);
-            display.spawn(x, y, 0);
-            display.spawn(x, y2, 0);
+            display.spawnRelative(x, y, 0);
+            display.spawnRelative(x, y2, 0);
             x += 0.1;
         }
     }
@@ -2530,7 +2540,7 @@ public final class XParticle {
             // Extend value is a little complicated Idk how to explain it.
             // Might be related: https://en.wikipedia.org/wiki/Hypercube
             for (double pos = 0; pos < 1 + extend; pos += rate) {
-                display.spawn(x + (deltaX * pos), 0, z + (deltaZ * pos));
+                display.spawnRelative(x + (deltaX * pos), 0, z + (deltaZ * pos));
             }
         }
     }
@@ -2643,13 +2653,13 @@ public final class XParticle {
                     double x = times * Math.cos(theta);
                     double y = 2 * Math.exp(-0.1 * times) * Math.sin(times) + 1.5;
                     double z = times * Math.sin(theta);
-                    display.spawn(x, y, z);
+                    display.spawnRelative(x, y, z);
 
                     theta = theta + Math.PI / 64;
                     x = times * Math.cos(theta);
                     //y = 2 * Math.exp(-0.1 * times) * Math.sin(times) + 1.5;
                     z = times * Math.sin(theta);
-                    secDisplay.spawn(x, y, z);
+                    secDisplay.spawnRelative(x, y, z);
                 }
                 if (times > 20) {
                     done = true;
@@ -2969,4 +2979,303 @@ public final class XParticle {
             return image;
         });
     }
+
+    /**
+     * A shape that has all of its points calculated once, so it can be displayed many times
+     * without calculating the same sin and cos values again.
+     * Shapes are cached by their parameters, so they should only be used for shapes that are displayed
+     * frequently with the same parameters, such as auras or other effects that are redrawn every tick.
+     * For shapes with changing parameters, use the normal shape methods instead.
+     * Only the most recently used shapes are kept in the cache.
+     * <p>
+     * The points are relative to the location of the display and are rotated
+     * together with the display rotation.
+     * <p>
+     * <b>Example:</b>
+     * <blockquote><pre>
+     *     // Every tick:
+     *     XParticle.Shape.sphere(2, 20).display(display);
+     * </pre></blockquote>
+     *
+     * @since 5.1.0
+     */
+    public static final class Shape {
+        /**
+         * Shapes with parameters that change every frame would otherwise fill the cache.
+         */
+        private static final Cache<Key, Shape> CACHE = CacheBuilder.newBuilder()
+                .maximumSize(256)
+                .expireAfterAccess(5, TimeUnit.MINUTES)
+                .build();
+
+        /**
+         * The xyz of each point after each other.
+         */
+        final double[] points;
+        /**
+         * The xyz offset of each point for directional displays after each other, or null if
+         * the shape doesn't have a directional pattern. A NaN y means the y offset of the display is kept.
+         */
+        final double[] directions;
+
+        private Shape(double[] points, double[] directions) {
+            this.points = points;
+            this.directions = directions;
+        }
+
+        /**
+         * @see XParticle#circle(double, double, ParticleDisplay)
+         * @since 5.1.0
+         */
+        public static Shape circle(double radius, double rate) {
+            return cached(new Key("circle", radius, rate), () -> {
+                Builder builder = new Builder(true);
+                builder.circle(radius, rate, 0);
+                return builder.build();
+            });
+        }
+
+        /**
+         * @see XParticle#filledCircle(double, double, double, ParticleDisplay)
+         * @since 5.1.0
+         */
+        public static Shape filledCircle(double radius, double rate, double radiusRate) {
+            return cached(new Key("filledCircle", radius, rate, radiusRate), () -> {
+                Builder builder = new Builder(true);
+                builder.filledCircle(radius, rate, radiusRate, 0);
+                return builder.build();
+            });
+        }
+
+        /**
+         * Unlike {@link XParticle#cylinder(double, double, double, ParticleDisplay)} the height
+         * of the circles is also rotated with the display.
+         *
+         * @see XParticle#cylinder(double, double, double, ParticleDisplay)
+         * @since 5.1.0
+         */
+        public static Shape cylinder(double height, double radius, double rate) {
+            return cached(new Key("cylinder", height, radius, rate), () -> {
+                Builder builder = new Builder(true);
+                builder.filledCircle(radius, rate, 3, 0);
+                builder.filledCircle(radius, rate, 3, height);
+                for (double y = 0; y < height; y += 0.1) builder.circle(radius, rate, y);
+                return builder.build();
+            });
+        }
+
+        /**
+         * Unlike {@link XParticle#cone(double, double, double, double, ParticleDisplay)} the height
+         * of the circles is also rotated with the display.
+         *
+         * @see XParticle#cone(double, double, double, double, ParticleDisplay)
+         * @since 5.1.0
+         */
+        public static Shape cone(double height, double radius, double rate, double circleRate) {
+            return cached(new Key("cone", height, radius, rate, circleRate), () -> {
+                Builder builder = new Builder(true);
+                double radiusDiv = radius / (height / rate);
+                double circleRadius = radius;
+                for (double i = 0; i < height; i += rate) {
+                    circleRadius -= radiusDiv;
+                    if (circleRadius < 0) circleRadius = 0;
+                    builder.circle(circleRadius, circleRate - i, i);
+                }
+                return builder.build();
+            });
+        }
+
+        /**
+         * @see XParticle#sphere(double, double, ParticleDisplay)
+         * @since 5.1.0
+         */
+        public static Shape sphere(double radius, double rate) {
+            return cached(new Key("sphere", radius, rate), () -> {
+                Builder builder = new Builder(true);
+                double rateDiv = Math.PI / rate;
+
+                for (double phi = 0; phi <= Math.PI; phi += rateDiv) {
+                    double y1 = radius * Math.cos(phi);
+                    double y2 = radius * Math.sin(phi);
+                    double directionY = Math.sin(Math.atan2(y2, y1));
+
+                    for (double theta = 0; theta <= PII; theta += rateDiv) {
+                        double x = Math.cos(theta) * y2;
+                        double z = Math.sin(theta) * y2;
+                        double omega = Math.atan2(z, x);
+                        builder.add(x, y1, z, Math.cos(omega), directionY, Math.sin(omega));
+                    }
+                }
+                return builder.build();
+            });
+        }
+
+        /**
+         * @see XParticle#ring(double, double, double, ParticleDisplay)
+         * @since 5.1.0
+         */
+        public static Shape ring(double rate, double radius, double tubeRadius) {
+            return cached(new Key("ring", rate, radius, tubeRadius), () -> {
+                Builder builder = new Builder(false);
+                double rateDiv = Math.PI / rate;
+                double tubeDiv = Math.PI / tubeRadius;
+
+                for (double theta = 0; theta <= PII; theta += rateDiv) {
+                    double cos = Math.cos(theta);
+                    double sin = Math.sin(theta);
+
+                    for (double phi = 0; phi <= PII; phi += tubeDiv) {
+                        double finalRadius = radius + (tubeRadius * Math.cos(phi));
+                        builder.add(finalRadius * cos, finalRadius * sin, tubeRadius * Math.sin(phi), 0, 0, 0);
+                    }
+                }
+                return builder.build();
+            });
+        }
+
+        /**
+         * Removes all the cached shapes.
+         *
+         * @since 5.1.0
+         */
+        public static void clearCache() {
+            CACHE.invalidateAll();
+        }
+
+        private static Shape cached(Key key, Supplier<Shape> builder) {
+            Shape shape = CACHE.getIfPresent(key);
+            if (shape == null) {
+                shape = builder.get();
+                CACHE.put(key, shape);
+            }
+            return shape;
+        }
+
+        /**
+         * @return the amount of points in this shape.
+         * @since 5.1.0
+         */
+        public int size() {
+            return points.length / 3;
+        }
+
+        /**
+         * Spawns all the points of this shape at the location of the display.
+         * The location of the display is only taken once for all the points
+         * and the same location object is reused for every point.
+         *
+         * @param display the display to spawn the points with.
+         * @since 5.1.0
+         */
+        public void display(ParticleDisplay display) {
+            Location location = display.getLocation();
+            if (location == null) throw new IllegalStateException("Attempting to spawn particle when no location is set");
+
+            Location point = new Location(location.getWorld(), location.getX(), location.getY(), location.getZ(), location.getYaw(), location.getPitch());
+            boolean directional = directions != null && display.isDirectional();
+
+            for (int i = 0; i < points.length; i += 3) {
+                if (directional) {
+                    double directionY = directions[i + 1];
+                    if (Double.isNaN(directionY)) directionY = display.getOffset().getY();
+                    display.offset(directions[i], directionY, directions[i + 2]);
+                }
+                display.spawn(display.rotate(location, points[i], points[i + 1], points[i + 2], point));
+            }
+        }
+
+        /**
+         * Adds all the points of this shape to the batch relative to the location of its display.
+         * Batches can send fewer points of the shape to players that are farther away
+         * with {@link ParticleDisplay.Batch#withLevelOfDetail(double)}
+         * <p>
+         * The directional pattern of the shape is not supported, since all the points of a batch share the same offset.
+         *
+         * @param batch the batch to add the points to.
+         * @since 5.1.0
+         */
+        public void display(ParticleDisplay.Batch batch) {
+            for (int i = 0; i < points.length; i += 3) {
+                batch.add(points[i], points[i + 1], points[i + 2]);
+            }
+        }
+
+        private static final class Key {
+            private final String shape;
+            private final double[] parameters;
+
+            Key(String shape, double... parameters) {
+                this.shape = shape;
+                this.parameters = parameters;
+            }
+
+            @Override
+            public boolean equals(Object obj) {
+                if (this == obj) return true;
+                if (!(obj instanceof Key)) return false;
+                Key key = (Key) obj;
+                return shape.equals(key.shape) && Arrays.equals(parameters, key.parameters);
+            }
+
+            @Override
+            public int hashCode() {
+                return shape.hashCode() * 31 + Arrays.hashCode(parameters);
+            }
+        }
+
+        private static final class Builder {
+            private double[] points = new double[96], directions;
+            private int size;
+
+            Builder(boolean directional) {
+                if (directional) directions = new double[points.length];
+            }
+
+            /**
+             * Same as {@link XParticle#circle(double, double, double, double, double, ParticleDisplay)}
+             * with a full loop and the extension of 1 at the given height.
+             */
+            void circle(double radius, double rate, double y) {
+                double rateDiv = Math.PI / Math.abs(rate);
+                for (double theta = 0; theta <= PII; theta += rateDiv) {
+                    double x = radius * Math.cos(theta);
+                    double z = radius * Math.sin(theta);
+                    double phi = Math.atan2(z, x);
+                    add(x, y, z, Math.cos(phi), Double.NaN, Math.sin(phi));
+                }
+            }
+
+            /**
+             * Same as {@link XParticle#filledCircle(double, double, double, ParticleDisplay)} at the given height.
+             */
+            void filledCircle(double radius, double rate, double radiusRate, double y) {
+                double dynamicRate = 0;
+                for (double i = 0.1; i < radius; i += radiusRate) {
+                    dynamicRate += rate / (radius / radiusRate);
+                    circle(i, dynamicRate, y);
+                }
+            }
+
+            void add(double x, double y, double z, double directionX, double directionY, double directionZ) {
+                if (size == points.length) {
+                    points = Arrays.copyOf(points, size << 1);
+                    if (directions != null) directions = Arrays.copyOf(directions, size << 1);
+                }
+
+                points[size] = x;
+                points[size + 1] = y;
+                points[size + 2] = z;
+                if (directions != null) {
+                    directions[size] = directionX;
+                    directions[size + 1] = directionY;
+                    directions[size + 2] = directionZ;
+                }
+                size += 3;
+            }
+
+            Shape build() {
+                return new Shape(Arrays.copyOf(points, size), directions == null ? null : Arrays.copyOf(directions, size));
+            }
+        }
+    }
 }
@@ -122,54 +122,74 @@ public abstract class DummyAbstractServer {
         System.out.println(str);
     }
 
-    protected void runServer() {
+    /**
+     * Starts the server and runs the tests once it's initialized.
+     *
+     * @param tests the tests to run.
+     */
+    protected void runServer(Runnable tests) {
         try {
             File here = new File(System.getProperty("user.dir"));
             Path path = here.toPath();
             File before = here.getParentFile();
             Path pathBefore = before.toPath();
             Path testClassesPath = pathBefore.resolve("test-classes");
-            Path serverProperties = testClassesPath.resolve("server.properties");
-            Path bukkitYml = testClassesPath.resolve("bukkit.yml");
-            Path spigotYml = testClassesPath.resolve("spigot.yml");
             Files.deleteIfExists(path.resolve("world"));
             Files.deleteIfExists(path.resolve("world_nether"));
             Files.deleteIfExists(path.resolve("world_the_end"));
-            Thread thread = new Thread(() -> {
-                System.setProperty("com.mojang.eula.agree", "true");
-                System.setProperty("IReallyKnowWhatIAmDoingISwear", "true");
-                InvocationHandler implementer = main();
-
-                DummyAbstractServer.print("Implementing dummy server...");
-                // A proxy because we don't want to pollute this class with a bunch of methods we can't implement.
-//                Server instance = (Server) Proxy.newProxyInstance(Server.class.getClassLoader(), new Class[]{Server.class}, implementer);
-
-                DummyAbstractServer.print("Starting org.bukkit.craftbukkit.Main...");
-                Main.main(new String[]{ // https://www.spigotmc.org/wiki/start-up-parameters/
-                        "nogui",
-                        "noconsole",
-                        "--config=" + serverProperties,
-                        "--bukkit-settings=" + bukkitYml,
-                        "--spigot-settings=" + spigotYml,
-                });
-
-//                DummyAbstractServer.print("Initializing server...");
-                //Bukkit.setServer(instance);
-
-                DummyAbstractServer.print("Done!");
-            });
 
-            // I'm still not sure how to make this part more reliable.
-            thread.start();
-            thread.join();
-            Thread.sleep(2000L);
-            XSeriesTests.test();
+            InvocationHandler implementer = main();
+            DummyAbstractServer.print("Implementing dummy server...");
+            // A proxy because we don't want to pollute this class with a bunch of methods we can't implement.
+//            Server instance = (Server) Proxy.newProxyInstance(Server.class.getClassLoader(), new Class[]{Server.class}, implementer);
+
+            Thread thread = startServer(testClassesPath, path);
+            tests.run();
             Executors.newSingleThreadScheduledExecutor(Executors.defaultThreadFactory()).schedule(thread::interrupt, 10, TimeUnit.SECONDS);
         } catch (Exception e) {
             throw new RuntimeException(e);
         }
     }
 
+    /**
+     * Starts org.bukkit.craftbukkit.Main and waits for it to initialize.
+     * This is also used by the JMH benchmarks, since most of the utilities need a running server.
+     *
+     * @param configs the directory containing server.properties, bukkit.yml and spigot.yml
+     * @param worlds  the directory to create the worlds in.
+     * @return the thread that started the server.
+     */
+    public static Thread startServer(Path configs, Path worlds) throws InterruptedException {
+        Path serverProperties = configs.resolve("server.properties");
+        Path bukkitYml = configs.resolve("bukkit.yml");
+        Path spigotYml = configs.resolve("spigot.yml");
+        Thread thread = new Thread(() -> {
+            System.setProperty("com.mojang.eula.agree", "true");
+            System.setProperty("IReallyKnowWhatIAmDoingISwear", "true");
+
+            DummyAbstractServer.print("Starting org.bukkit.craftbukkit.Main...");
+            Main.main(new String[]{ // https://www.spigotmc.org/wiki/start-up-parameters/
+                    "nogui",
+                    "noconsole",
+                    "--config=" + serverProperties,
+                    "--bukkit-settings=" + bukkitYml,
+                    "--spigot-settings=" + spigotYml,
+                    "--world-container=" + worlds,
+            });
+
+//            DummyAbstractServer.print("Initializing server...");
+            //Bukkit.setServer(instance);
+
+            DummyAbstractServer.print("Done!");
+        });
+
+        // I'm still not sure how to make this part more reliable.
+        thread.start();
+        thread.join();
+        Thread.sleep(2000L);
+        return thread;
+    }
+
     protected OptionSet parseOptions(String[] args) {
         try {
             return OPTION_PARSER.parse(args);
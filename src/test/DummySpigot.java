@@ -12,7 +12,7 @@ public class DummySpigot extends DummyAbstractServer implements InvocationHandle
     @Test
     void test() {
         DummyAbstractServer.print("Running tests...");
-        runServer();
+        runServer(XSeriesTests::test);
     }
 
     @Override
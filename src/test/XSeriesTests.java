@@ -1,15 +1,34 @@
 import com.cryptomorin.xseries.*;
 import com.cryptomorin.xseries.particles.ParticleDisplay;
+import org.bukkit.Bukkit;
+import org.bukkit.Instrument;
 import org.bukkit.Location;
 import org.bukkit.Material;
 import org.bukkit.Particle;
 import org.bukkit.Sound;
 import org.bukkit.enchantments.Enchantment;
+import org.bukkit.entity.Entity;
+import org.bukkit.entity.Player;
+import org.bukkit.inventory.ItemStack;
+import org.bukkit.plugin.Plugin;
 import org.bukkit.potion.PotionEffectType;
+import org.bukkit.scheduler.BukkitTask;
+import org.bukkit.util.Vector;
 import org.junit.jupiter.api.Assertions;
 
-import java.util.Arrays;
-import java.util.Optional;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.reflect.Proxy;
+import java.nio.ByteBuffer;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.*;
+import java.util.concurrent.Callable;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -39,6 +58,10 @@ public final class XSeriesTests {
         assertMaterial("GREEN_CONCRETE_POWDER", "CONCRETE_POWDER:13");
         assertFalse(XMaterial.MAGENTA_TERRACOTTA.isOneOf(Arrays.asList("GREEN_TERRACOTTA", "BLACK_BED", "DIRT")));
         assertTrue(XMaterial.BLACK_CONCRETE.isOneOf(Arrays.asList("RED_CONCRETE", "CONCRETE:15", "CONCRETE:14")));
+        assertTrue(XMaterial.MaterialMatcher.compile(Arrays.asList("CONTAINS:CONCRETE", "REGEX:^.{1,3}$")).matches(XMaterial.MAP));
+        assertEquals(Arrays.asList("NOT_A_MATERIAL"), XMaterial.matchAll(Arrays.asList("DIRT", "CONCRETE:15", "NOT_A_MATERIAL")).getUnmatched());
+        assertEquals("Enchanted Golden Apple", XMaterial.ENCHANTED_GOLDEN_APPLE.toString(Locale.ENGLISH));
+        assertSame(XMaterial.matchXMaterial(new ItemStack(Material.DIAMOND_SWORD)), XMaterial.DIAMOND_SWORD);
         for (Material material : Material.values()) if (!material.name().startsWith("LEGACY")) XMaterial.matchXMaterial(material);
 
         print("Testing XPotion...");
@@ -65,12 +88,148 @@ public final class XSeriesTests {
         assertPresent(XSound.matchXSound("RECORD_11"));
         for (Sound sound : Sound.values()) XSound.matchXSound(sound);
 
+        print("Testing NoteBlockMusic...");
+        NoteBlockMusic.Sequence sequence = new NoteBlockMusic.Sequence();
+        // Played at 0ms and 100ms, then waits longer than the max delay of a single event.
+        sequence.addInstruction(new NoteBlockMusic.Sound(XSound.BLOCK_NOTE_BLOCK_HARP, 1.2599f, 1, 2, 100, 70_000));
+        sequence.addInstruction(new NoteBlockMusic.Sound(XSound.BLOCK_NOTE_BLOCK_BELL, 0.5f, 0.25f, 1, 0, 50));
+        NoteBlockMusic.Timeline timeline = NoteBlockMusic.Timeline.compile(sequence);
+        assertEquals(70_250, timeline.getLength());
+        assertEquals(4, timeline.size());
+        assertSame(XSound.BLOCK_NOTE_BLOCK_HARP, timeline.getSound(1));
+        assertEquals(1.2599f, timeline.getPitch(1), 1f / 4096);
+        assertEquals(1, timeline.getVolume(1));
+        assertEquals(100, timeline.getTime(1));
+        assertNull(timeline.getSound(2)); // Rest
+        assertSame(XSound.BLOCK_NOTE_BLOCK_BELL, timeline.getSound(3));
+        assertEquals(0.5f, timeline.getPitch(3));
+        assertEquals(0.25f, timeline.getVolume(3));
+        assertEquals(70_200, timeline.getTime(3));
+        assertEquals(0, timeline.indexAt(0));
+        assertEquals(1, timeline.indexAt(1));
+        assertEquals(3, timeline.indexAt(70_000));
+        assertEquals(timeline.size(), timeline.indexAt(70_201));
+        NoteBlockMusic.Timeline twice = NoteBlockMusic.Timeline.concat(Arrays.asList(timeline, timeline));
+        assertEquals(140_500, twice.getLength());
+        assertEquals(8, twice.size());
+        assertEquals(70_250, twice.getTime(4));
+        assertEquals(140_450, twice.getTime(7));
+
+        print("Testing NoteBlockMusic.SongCache...");
+        try {
+            String script = "PIANO,D 100 PIANO,E 300";
+            Path songs = Files.createTempDirectory("xseries-songs");
+            NoteBlockMusic.Timeline song = new NoteBlockMusic.SongCache(songs).load(script);
+            Path cached;
+            try (DirectoryStream<Path> files = Files.newDirectoryStream(songs, "*.nbm")) {
+                cached = files.iterator().next();
+            }
+            assertEquals(20 + song.size() * 8L, Files.size(cached));
+
+            // A valid file is read as it is, without compiling the script again.
+            ByteBuffer header = ByteBuffer.allocate(20).putInt(0x584E424D).putInt(1).putLong(12_345).putInt(0);
+            Files.write(cached, header.array());
+            assertEquals(12_345, new NoteBlockMusic.SongCache(songs).load(script).getLength());
+
+            // Corrupt files and other format versions are compiled and written again.
+            Files.write(cached, new byte[]{1, 2, 3});
+            assertEquals(song.getLength(), new NoteBlockMusic.SongCache(songs).load(script).getLength());
+            header.putInt(4, 2);
+            Files.write(cached, header.array());
+            NoteBlockMusic.Timeline recompiled = new NoteBlockMusic.SongCache(songs).load(script);
+            assertEquals(song.getLength(), recompiled.getLength());
+            assertSame(song.getSound(1), recompiled.getSound(1));
+            assertEquals(20 + song.size() * 8L, Files.size(cached));
+
+            Files.setLastModifiedTime(cached, FileTime.fromMillis(0));
+            assertEquals(1, new NoteBlockMusic.SongCache(songs).evict(1, TimeUnit.HOURS));
+            Files.delete(songs);
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+
+        print("Testing XSound.Sequencer...");
+        Plugin plugin = dummyPlugin();
+        AtomicInteger ticks = new AtomicInteger();
+        List<Integer> notes = Collections.synchronizedList(new ArrayList<>());
+        Player listener = dummyPlayer(() -> notes.add(ticks.get()));
+        XSound.Sequencer sequencer = new XSound.Sequencer(plugin);
+        BukkitTask[] counter = new BukkitTask[1];
+        XSound.Sequencer.Task[] failing = new XSound.Sequencer.Task[1];
+        Iterable<Entity> unloaded = () -> {
+            throw new IllegalStateException("Expected failure of a sequencer task");
+        };
+        XSound.Sequencer.Task notesTask = sync(plugin, () -> {
+            // Scheduled before the sequencer starts in the same tick, so it runs before the sequencer in each tick.
+            counter[0] = Bukkit.getScheduler().runTaskTimer(plugin, ticks::incrementAndGet, 1L, 1L);
+            // The delay is longer than the timing wheel, so the task waits in its slot for another round.
+            XSound.Sequencer.Task task = sequencer.playAscendingNote(listener, listener, Instrument.PIANO, 2, 65);
+            // Played before the notes in the same slot, so the notes are still played after it fails.
+            failing[0] = sequencer.playRepeatedly(XSound.BLOCK_NOTE_BLOCK_BELL, unloaded, 1, 1, 3, 65);
+            return task;
+        });
+        await(notesTask::isCancelled);
+        counter[0].cancel();
+        assertTrue(failing[0].isCancelled());
+        assertEquals(Arrays.asList(1, 66), notes);
+        assertEquals(0, sequencer.getQueueDepth());
+        sequencer.shutdown();
+
+        print("Testing XSound.Limiter...");
+        AtomicInteger sounds = new AtomicInteger();
+        Player player = dummyPlayer(sounds::incrementAndGet);
+        // Both are within the same block, but on different sides of 0.
+        Location positive = new Location(null, 0.01, 64, 0), negative = new Location(null, -0.01, 64, 0);
+        XSound.Limiter limiter = sync(plugin, () -> new XSound.Limiter(plugin, 2));
+        List<Boolean> sameTick = sync(plugin, () -> Arrays.asList(
+                limiter.play(player, XSound.BLOCK_NOTE_BLOCK_HARP, positive, 1, 1),
+                limiter.play(player, XSound.BLOCK_NOTE_BLOCK_HARP, positive, 1, 1),
+                limiter.play(player, XSound.BLOCK_NOTE_BLOCK_HARP, negative, 1, 1),
+                limiter.play(player, XSound.BLOCK_NOTE_BLOCK_BELL, positive, 1, 1)
+        ));
+        assertEquals(Arrays.asList(true, false, true, false), sameTick);
+        sync(plugin, () -> null); // Wait for another tick.
+        boolean nextTick = sync(plugin, () -> limiter.play(player, XSound.BLOCK_NOTE_BLOCK_HARP, positive, 1, 1));
+        assertTrue(nextTick);
+        assertEquals(3, sounds.get());
+        limiter.shutdown();
+
         print("Testing particles...");
         ParticleDisplay.of(Particle.CLOUD).
                 withLocation(new Location(null, 1, 1, 1))
                 .rotate(90, 90, 90).withCount(-1).offset(5, 5, 5).withExtra(1).forceSpawn(true)
                 .rotationOrder(ParticleDisplay.Axis.X, ParticleDisplay.Axis.Y, ParticleDisplay.Axis.Z);
 
+        print("Testing particle rotations...");
+        Location origin = new Location(null, 10, 64, -5), rotated = new Location(null, 0, 0, 0);
+        double[][] points = {{1, 0, 0}, {0, 1, 0}, {0, 0, 1}, {2.5, -1.25, 0.75}};
+        Vector rotation = new Vector(0.3, -1.1, 2.4);
+        ParticleDisplay rotating = ParticleDisplay.of(Particle.CLOUD).rotate(rotation.clone());
+        for (int turn = 0; turn < 2; turn++) {
+            for (ParticleDisplay.Axis first : ParticleDisplay.Axis.values()) {
+                for (ParticleDisplay.Axis second : ParticleDisplay.Axis.values()) {
+                    for (ParticleDisplay.Axis third : ParticleDisplay.Axis.values()) {
+                        rotating.rotationOrder(first, second, third);
+                        for (double[] point : points) {
+                            Vector expected = new Vector(point[0], point[1], point[2]);
+                            ParticleDisplay.rotateAround(expected, first, rotation);
+                            ParticleDisplay.rotateAround(expected, second, rotation);
+                            ParticleDisplay.rotateAround(expected, third, rotation);
+                            expected.add(origin.toVector());
+
+                            rotating.rotate(origin, point[0], point[1], point[2], rotated);
+                            assertEquals(expected.getX(), rotated.getX(), 1e-9);
+                            assertEquals(expected.getY(), rotated.getY(), 1e-9);
+                            assertEquals(expected.getZ(), rotated.getZ(), 1e-9);
+                        }
+                    }
+                }
+            }
+            // Changing the rotation of the display must not reuse the old rotation.
+            rotating.rotate(0.5, 0, -0.25);
+            rotation.add(new Vector(0.5, 0, -0.25));
+        }
+
         print("Testing XTag...");
         assertTrue(XTag.CORALS.isTagged(XMaterial.TUBE_CORAL));
         assertTrue(XTag.LOGS_THAT_BURN.isTagged(XMaterial.STRIPPED_ACACIA_LOG));
@@ -94,6 +253,83 @@ public final class XSeriesTests {
         }
     }
 
+    /**
+     * A plugin that is only used for scheduling tasks.
+     */
+    private static Plugin dummyPlugin() {
+        return (Plugin) Proxy.newProxyInstance(Plugin.class.getClassLoader(), new Class[]{Plugin.class}, (proxy, method, args) -> {
+            switch (method.getName()) {
+                case "isEnabled":
+                    return true;
+                case "getName":
+                case "toString":
+                    return "XSeriesTests";
+                case "getServer":
+                    return Bukkit.getServer();
+                case "getLogger":
+                    return Bukkit.getLogger();
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "equals":
+                    return proxy == args[0];
+                default:
+                    return null;
+            }
+        });
+    }
+
+    /**
+     * A player that only counts the sounds and notes played to them.
+     */
+    private static Player dummyPlayer(Runnable onPlay) {
+        UUID id = UUID.randomUUID();
+        Location location = new Location(null, 0, 64, 0);
+        return (Player) Proxy.newProxyInstance(Player.class.getClassLoader(), new Class[]{Player.class}, (proxy, method, args) -> {
+            switch (method.getName()) {
+                case "getUniqueId":
+                    return id;
+                case "getLocation":
+                    return location;
+                case "isOnline":
+                    return true;
+                case "playSound":
+                case "playNote":
+                    onPlay.run();
+                    return null;
+                case "hashCode":
+                    return id.hashCode();
+                case "equals":
+                    return proxy == args[0];
+                default:
+                    return null;
+            }
+        });
+    }
+
+    /**
+     * Runs the task on the main thread in a single tick.
+     * Assertions should be done after this returns, since the scheduler doesn't handle errors thrown by the task.
+     */
+    private static <T> T sync(Plugin plugin, Callable<T> task) {
+        try {
+            return Bukkit.getScheduler().callSyncMethod(plugin, task).get(30, TimeUnit.SECONDS);
+        } catch (Exception ex) {
+            throw new RuntimeException(ex);
+        }
+    }
+
+    private static void await(BooleanSupplier condition) {
+        long timeout = System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(30);
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.currentTimeMillis() < timeout, "Timed out");
+            try {
+                Thread.sleep(50L);
+            } catch (InterruptedException ex) {
+                throw new RuntimeException(ex);
+            }
+        }
+    }
+
     private static void assertPresent(Optional<?> opt) {
         Assertions.assertTrue(opt.isPresent());
     }